@@ -0,0 +1,198 @@
+package org.manager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per endpoint class concurrency limits with a bounded wait queue, applied by AdmissionControlFilter.
+// The expensive classes together stay below the JDBC pool (Hikari default: 10), so cheap by-id reads
+// always find a connection instead of queuing behind full listings. Over the limit a request waits
+// up to queue-timeout in a queue of max-queue; a full queue is rejected at once with 429, a timed
+// out wait with 503, both with Retry-After.
+// Configured with cookingbook.admission.<class>.max-concurrent / max-queue / queue-timeout
+// (class in lower case, e.g. cookingbook.admission.list.max-concurrent=2), resizable at runtime
+// through AdmissionController. Metrics: cookingbook.admission.{active,queued,limit} gauges and
+// cookingbook.admission.requests{class, result=admitted|rejected-queue-full|rejected-timeout}.
+@Component
+public class AdmissionControl {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControl.class);
+
+    public enum EndpointClass {
+        READ(64, 256, Duration.ofMillis(500)),
+        LIST(2, 8, Duration.ofSeconds(2)),
+        SEARCH(3, 32, Duration.ofSeconds(1)),
+        PORTIONS(2, 16, Duration.ofSeconds(1));
+
+        private final int defaultMaxConcurrent;
+        private final int defaultMaxQueue;
+        private final Duration defaultQueueTimeout;
+
+        EndpointClass(int defaultMaxConcurrent, int defaultMaxQueue, Duration defaultQueueTimeout) {
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+            this.defaultMaxQueue = defaultMaxQueue;
+            this.defaultQueueTimeout = defaultQueueTimeout;
+        }
+    }
+
+    public enum Decision { ADMITTED, QUEUE_FULL, TIMED_OUT }
+
+    public record LimiterStatus(EndpointClass endpointClass, int maxConcurrent, int maxQueue,
+                                long queueTimeoutMillis, int active, int queued) { }
+
+    private final Map<EndpointClass, Limiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Map<Decision, Counter>> counters = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControl(Environment environment, MeterRegistry meterRegistry) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "cookingbook.admission." + endpointClass.name().toLowerCase() + ".";
+            Limiter limiter = new Limiter(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, endpointClass.defaultMaxConcurrent),
+                    environment.getProperty(prefix + "max-queue", Integer.class, endpointClass.defaultMaxQueue),
+                    environment.getProperty(prefix + "queue-timeout", Duration.class, endpointClass.defaultQueueTimeout));
+            limiters.put(endpointClass, limiter);
+
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("cookingbook.admission.active", limiter, Limiter::active).tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("cookingbook.admission.queued", limiter, Limiter::queued).tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("cookingbook.admission.limit", limiter, Limiter::maxConcurrent).tag("class", tag)
+                    .register(meterRegistry);
+            Map<Decision, Counter> byDecision = new EnumMap<>(Decision.class);
+            for (Decision decision : Decision.values()) {
+                byDecision.put(decision, Counter.builder("cookingbook.admission.requests")
+                        .tag("class", tag)
+                        .tag("result", switch (decision) {
+                            case ADMITTED -> "admitted";
+                            case QUEUE_FULL -> "rejected-queue-full";
+                            case TIMED_OUT -> "rejected-timeout";
+                        })
+                        .register(meterRegistry));
+            }
+            counters.put(endpointClass, byDecision);
+        }
+    }
+
+    // On ADMITTED the caller must call release(endpointClass) when done
+    public Decision acquire(EndpointClass endpointClass) throws InterruptedException {
+        Decision decision = limiters.get(endpointClass).acquire();
+        counters.get(endpointClass).get(decision).increment();
+        return decision;
+    }
+
+    public void release(EndpointClass endpointClass) {
+        limiters.get(endpointClass).release();
+    }
+
+    // Seconds a rejected client should wait: roughly one queue timeout
+    public long retryAfterSeconds(EndpointClass endpointClass) {
+        return Math.max(1, (limiters.get(endpointClass).queueTimeout().toMillis() + 999) / 1000);
+    }
+
+    public LimiterStatus status(EndpointClass endpointClass) {
+        Limiter limiter = limiters.get(endpointClass);
+        return new LimiterStatus(endpointClass, limiter.maxConcurrent(), limiter.maxQueue(),
+                limiter.queueTimeout().toMillis(), limiter.active(), limiter.queued());
+    }
+
+    // null keeps the current value
+    public LimiterStatus resize(EndpointClass endpointClass, Integer maxConcurrent, Integer maxQueue, Long queueTimeoutMillis) {
+        limiters.get(endpointClass).resize(maxConcurrent, maxQueue,
+                queueTimeoutMillis != null ? Duration.ofMillis(queueTimeoutMillis) : null);
+        log.info("Admission limits changed: {}", status(endpointClass));
+        return status(endpointClass);
+    }
+
+    static final class Limiter {
+
+        // Semaphore.reducePermits is protected; shrinking lets running requests finish and
+        // only admits new ones once the count is below the new limit
+        private static final class ResizableSemaphore extends Semaphore {
+            ResizableSemaphore(int permits) {
+                super(permits, true);
+            }
+
+            void shrink(int by) {
+                reducePermits(by);
+            }
+        }
+
+        private final ResizableSemaphore permits;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private volatile int maxConcurrent;
+        private volatile int maxQueue;
+        private volatile Duration queueTimeout;
+
+        Limiter(int maxConcurrent, int maxQueue, Duration queueTimeout) {
+            validate(maxConcurrent, maxQueue, queueTimeout);
+            this.permits = new ResizableSemaphore(maxConcurrent);
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.queueTimeout = queueTimeout;
+        }
+
+        Decision acquire() throws InterruptedException {
+            if (!permits.tryAcquire()) {
+                if (queued.incrementAndGet() > maxQueue) {
+                    queued.decrementAndGet();
+                    return Decision.QUEUE_FULL;
+                }
+                try {
+                    if (!permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        return Decision.TIMED_OUT;
+                    }
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+            active.incrementAndGet();
+            return Decision.ADMITTED;
+        }
+
+        void release() {
+            active.decrementAndGet();
+            permits.release();
+        }
+
+        synchronized void resize(Integer newMaxConcurrent, Integer newMaxQueue, Duration newQueueTimeout) {
+            int concurrent = newMaxConcurrent != null ? newMaxConcurrent : maxConcurrent;
+            int queue = newMaxQueue != null ? newMaxQueue : maxQueue;
+            Duration timeout = newQueueTimeout != null ? newQueueTimeout : queueTimeout;
+            validate(concurrent, queue, timeout);
+            int delta = concurrent - maxConcurrent;
+            if (delta > 0) {
+                permits.release(delta);
+            } else if (delta < 0) {
+                permits.shrink(-delta);
+            }
+            maxConcurrent = concurrent;
+            maxQueue = queue;
+            queueTimeout = timeout;
+        }
+
+        int active() { return active.get(); }
+        int queued() { return queued.get(); }
+        int maxConcurrent() { return maxConcurrent; }
+        int maxQueue() { return maxQueue; }
+        Duration queueTimeout() { return queueTimeout; }
+
+        private static void validate(int maxConcurrent, int maxQueue, Duration queueTimeout) {
+            if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be >= 1");
+            if (maxQueue < 0) throw new IllegalArgumentException("maxQueue must be >= 0");
+            if (queueTimeout.isNegative()) throw new IllegalArgumentException("queueTimeout must be >= 0");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.manager;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+// Sorts /api/recipes requests into AdmissionControl classes; writes and everything else pass through
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/api/recipes";
+    private static final Pattern CHEAP_READ =
+            Pattern.compile("/\\d+(/(similar|cost|is-vegetarian|cooking-time))?|/suggest|/analytics");
+    private static final Pattern PORTIONS = Pattern.compile("/\\d+/calculate-portions");
+
+    private final AdmissionControl admissionControl;
+    private final boolean enabled;
+
+    public AdmissionControlFilter(AdmissionControl admissionControl,
+                                  @Value("${cookingbook.admission.enabled:true}") boolean enabled) {
+        this.admissionControl = admissionControl;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionControl.EndpointClass endpointClass = classify(request);
+        AdmissionControl.Decision decision;
+        try {
+            decision = admissionControl.acquire(endpointClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, endpointClass, HttpStatus.SERVICE_UNAVAILABLE);
+            return;
+        }
+        switch (decision) {
+            case ADMITTED -> {
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    admissionControl.release(endpointClass);
+                }
+            }
+            case QUEUE_FULL -> reject(response, endpointClass, HttpStatus.TOO_MANY_REQUESTS);
+            case TIMED_OUT -> reject(response, endpointClass, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    static AdmissionControl.EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(PREFIX)) return null;
+        String rest = path.substring(PREFIX.length());
+        if (rest.endsWith("/")) rest = rest.substring(0, rest.length() - 1);
+        String method = request.getMethod();
+
+        if ("GET".equals(method)) {
+            if (rest.isEmpty()) return AdmissionControl.EndpointClass.LIST;
+            if (rest.equals("/search")) return AdmissionControl.EndpointClass.SEARCH;
+            if (CHEAP_READ.matcher(rest).matches()) return AdmissionControl.EndpointClass.READ;
+        } else if ("POST".equals(method) && PORTIONS.matcher(rest).matches()) {
+            return AdmissionControl.EndpointClass.PORTIONS;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, AdmissionControl.EndpointClass endpointClass,
+                        HttpStatus status) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admissionControl.retryAfterSeconds(endpointClass)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many concurrent " + endpointClass.name().toLowerCase()
+                + " requests, retry later\"}");
+    }
+}
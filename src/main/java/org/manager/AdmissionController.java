@@ -0,0 +1,50 @@
+package org.manager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runtime view and tuning of AdmissionControl; changes are not persisted (restart = configured values)
+@RestController
+@RequestMapping("/api/admin/admission")
+public class AdmissionController {
+
+    public record LimitsRequest(Integer maxConcurrent, Integer maxQueue, Long queueTimeoutMillis) { }
+
+    private final AdmissionControl admissionControl;
+
+    @Autowired
+    public AdmissionController(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    // GET limits and current load of every endpoint class
+    @GetMapping
+    public List<AdmissionControl.LimiterStatus> getLimits() {
+        List<AdmissionControl.LimiterStatus> statuses = new ArrayList<>();
+        for (AdmissionControl.EndpointClass endpointClass : AdmissionControl.EndpointClass.values()) {
+            statuses.add(admissionControl.status(endpointClass));
+        }
+        return statuses;
+    }
+
+    // PUT e.g. /api/admin/admission/LIST {"maxConcurrent": 1, "maxQueue": 4}; omitted values stay
+    @PutMapping("/{endpointClass}")
+    public AdmissionControl.LimiterStatus setLimits(@PathVariable AdmissionControl.EndpointClass endpointClass,
+                                                    @RequestBody LimitsRequest request) {
+        return admissionControl.resize(endpointClass, request.maxConcurrent(), request.maxQueue(),
+                request.queueTimeoutMillis());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+}
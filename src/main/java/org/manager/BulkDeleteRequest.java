@@ -0,0 +1,7 @@
+package org.manager;
+
+import java.util.List;
+
+// Either ids, or a filter (difficulty and/or part of the name); ids win when both are given
+public record BulkDeleteRequest(List<Long> ids, Difficulty difficulty, String nameContains) {
+}
@@ -0,0 +1,214 @@
+package org.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Catalog-wide aggregations ("average steps of HARD recipes", "share of recipes using SEAFOOD")
+// without loading a single entity. One row per recipe, stored column-wise in primitive arrays:
+// difficulty as ordinal bytes, servings, calories and step counts as ints, the ingredient categories
+// a recipe uses as a bitset in a long (Recipe.categoryMask). A query is one pass over a few arrays.
+// Kept in sync from RecipeChangedEvent like the other in-memory indexes.
+@Component
+public class CatalogColumns {
+
+    public record CatalogStats(long recipes,
+                               double averageSteps,
+                               double averageServings,
+                               double averageCalories,
+                               Map<IngredientCategory, Double> categoryShare) { }
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_CALORIES = -1;
+    private static final byte NO_DIFFICULTY = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // rows are dense; a removed row is filled with the last one
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private byte[] difficulty = new byte[INITIAL_CAPACITY];
+    private int[] servings = new int[INITIAL_CAPACITY];
+    private int[] calories = new int[INITIAL_CAPACITY];
+    private int[] stepCounts = new int[INITIAL_CAPACITY];
+    private long[] categories = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, Row> rows = load(null);
+        lock.writeLock().lock();
+        try {
+            rowById.clear();
+            size = 0;
+            rows.values().forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Map<Long, Row> rows = event.type() == RecipeChangedEvent.ChangeType.DELETED
+                ? Map.of() : load(event.recipeIds());
+        lock.writeLock().lock();
+        try {
+            for (Long id : event.recipeIds()) {
+                Row row = rows.get(id);
+                if (row != null) {
+                    put(row);
+                } else {
+                    remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Both filters are optional; category = only recipes using at least one ingredient of it
+    public CatalogStats stats(Difficulty difficultyFilter, IngredientCategory categoryFilter) {
+        int wantedDifficulty = difficultyFilter != null ? difficultyFilter.ordinal() : NO_DIFFICULTY;
+        long wantedCategories = categoryFilter != null ? 1L << categoryFilter.ordinal() : 0L;
+        IngredientCategory[] allCategories = IngredientCategory.values();
+        long[] categoryCounts = new long[allCategories.length];
+        long matched = 0, stepSum = 0, servingSum = 0, calorieSum = 0, withCalories = 0;
+
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                if (wantedDifficulty != NO_DIFFICULTY && difficulty[row] != wantedDifficulty) continue;
+                long mask = categories[row];
+                if ((mask & wantedCategories) != wantedCategories) continue;
+
+                matched++;
+                stepSum += stepCounts[row];
+                servingSum += servings[row];
+                int kcal = calories[row];
+                if (kcal != NO_CALORIES) {
+                    calorieSum += kcal;
+                    withCalories++;
+                }
+                while (mask != 0) {
+                    categoryCounts[Long.numberOfTrailingZeros(mask)]++;
+                    mask &= mask - 1;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<IngredientCategory, Double> share = new EnumMap<>(IngredientCategory.class);
+        for (IngredientCategory category : allCategories) {
+            share.put(category, matched == 0 ? 0 : (double) categoryCounts[category.ordinal()] / matched);
+        }
+        return new CatalogStats(matched,
+                matched == 0 ? 0 : (double) stepSum / matched,
+                matched == 0 ? 0 : (double) servingSum / matched,
+                withCalories == 0 ? 0 : (double) calorieSum / withCalories,
+                share);
+    }
+
+    private record Row(long id, byte difficulty, int servings, int calories, int steps, long categories) { }
+
+    // All recipes when ids is null; a handful of grouped projections, no entities
+    private Map<Long, Row> load(Collection<Long> ids) {
+        String where = ids == null ? "" : " where r.id in :ids";
+        Map<Long, Object[]> recipes = new HashMap<>();
+        for (Object[] r : query("select r.id, r.difficulty, r.servings, r.categoryMask from Recipe r" + where, ids)) {
+            recipes.put((Long) r[0], r);
+        }
+        Map<Long, Integer> calorieById = new HashMap<>();
+        for (Object[] r : query("select n.recipe.id, n.calories from NutritionalInfo n join n.recipe r" + where, ids)) {
+            calorieById.put((Long) r[0], (Integer) r[1]);
+        }
+        Map<Long, Integer> stepsById = new HashMap<>();
+        for (Object[] r : query("select s.recipe.id, count(s) from InstructionStep s join s.recipe r" + where +
+                " group by s.recipe.id", ids)) {
+            stepsById.put((Long) r[0], ((Long) r[1]).intValue());
+        }
+
+        Map<Long, Row> rows = new HashMap<>();
+        recipes.forEach((id, r) -> rows.put(id, new Row(id,
+                r[1] != null ? (byte) ((Difficulty) r[1]).ordinal() : NO_DIFFICULTY,
+                (Integer) r[2],
+                calorieById.getOrDefault(id, NO_CALORIES),
+                stepsById.getOrDefault(id, 0),
+                (Long) r[3])));
+        return rows;
+    }
+
+    // every statement filters and groups by recipe id, so the chunks' results simply add up
+    private List<Object[]> query(String jpql, Collection<Long> ids) {
+        if (ids == null) {
+            return entityManager.createQuery(jpql, Object[].class).getResultList();
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (List<Long> chunk : RecipeQueryRepository.chunks(List.copyOf(ids))) {
+            TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+            query.setParameter("ids", chunk);
+            rows.addAll(query.getResultList());
+        }
+        return rows;
+    }
+
+    private void put(Row row) {
+        Integer index = rowById.get(row.id());
+        if (index == null) {
+            if (size == ids.length) grow();
+            index = size++;
+            rowById.put(row.id(), index);
+        }
+        ids[index] = row.id();
+        difficulty[index] = row.difficulty();
+        servings[index] = row.servings();
+        calories[index] = row.calories();
+        stepCounts[index] = row.steps();
+        categories[index] = row.categories();
+    }
+
+    private void remove(Long id) {
+        Integer index = rowById.remove(id);
+        if (index == null) return;
+        int last = --size;
+        if (index != last) {
+            ids[index] = ids[last];
+            difficulty[index] = difficulty[last];
+            servings[index] = servings[last];
+            calories[index] = calories[last];
+            stepCounts[index] = stepCounts[last];
+            categories[index] = categories[last];
+            rowById.put(ids[index], index);
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        difficulty = Arrays.copyOf(difficulty, capacity);
+        servings = Arrays.copyOf(servings, capacity);
+        calories = Arrays.copyOf(calories, capacity);
+        stepCounts = Arrays.copyOf(stepCounts, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+}
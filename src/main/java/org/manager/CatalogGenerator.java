@@ -0,0 +1,280 @@
+package org.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Synthetic large catalog for reproducing production-size performance locally.
+// Enable with cookingbook.generator.recipes=100000 (tops the catalog up to that many recipes).
+// Writes go through JDBC batches: with IDENTITY ids Hibernate cannot batch inserts. Each batch
+// publishes one CREATED event in its transaction, so the outbox and the in-memory indexes see
+// generated recipes like any others. Runs after DataInitializer, which only seeds an empty catalog.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class CatalogGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogGenerator.class);
+
+    private static final String[] ADJECTIVES = {
+            "Classic", "Spicy", "Creamy", "Rustic", "Grandma's", "Quick", "Smoky", "Roasted",
+            "Crispy", "Herbed", "Lemon", "Garlic", "Sweet", "Tangy", "Summer", "Winter"
+    };
+    private static final String[] DISHES = {
+            "Risotto", "Curry", "Stew", "Salad", "Pasta", "Soup", "Tacos", "Stir Fry", "Casserole",
+            "Pie", "Burger", "Bowl", "Gratin", "Skewers", "Frittata", "Noodles", "Chili", "Tart"
+    };
+    private static final String[] STEP_TEMPLATES = {
+            "Chop the %s.", "Heat oil and fry the %s.", "Simmer the %s gently.", "Season the %s to taste.",
+            "Bake the %s until golden.", "Mix the %s in a large bowl.", "Grill the %s on both sides.",
+            "Let the %s rest before serving."
+    };
+    // station of each template above, so generated menus exercise KitchenScheduler
+    private static final StationType[] STEP_STATIONS = {
+            StationType.PREP, StationType.STOVE, StationType.STOVE, StationType.PREP,
+            StationType.OVEN, StationType.PREP, StationType.STOVE,
+            StationType.PREP
+    };
+
+    private record IngredientTemplate(String name, Unit unit, IngredientCategory category, int minQty, int maxQty) { }
+
+    // a dictionary row as stored; its category, not the template's, decides the recipe's diet mask
+    private record CatalogEntry(long id, IngredientCategory category) { }
+
+    private static final IngredientTemplate[] INGREDIENTS = {
+            new IngredientTemplate("Onion", Unit.G, IngredientCategory.VEGAN, 50, 300),
+            new IngredientTemplate("Garlic", Unit.G, IngredientCategory.VEGAN, 5, 40),
+            new IngredientTemplate("Tomatoes", Unit.G, IngredientCategory.VEGAN, 100, 800),
+            new IngredientTemplate("Olive Oil", Unit.ML, IngredientCategory.VEGAN, 10, 100),
+            new IngredientTemplate("Rice", Unit.G, IngredientCategory.GLUTEN_FREE, 100, 500),
+            new IngredientTemplate("Spaghetti", Unit.G, IngredientCategory.VEGETARIAN, 200, 500),
+            new IngredientTemplate("Flour", Unit.G, IngredientCategory.VEGETARIAN, 50, 500),
+            new IngredientTemplate("Eggs", Unit.PCS, IngredientCategory.VEGETARIAN, 1, 6),
+            new IngredientTemplate("Butter", Unit.G, IngredientCategory.VEGETARIAN, 10, 200),
+            new IngredientTemplate("Heavy Cream", Unit.ML, IngredientCategory.VEGETARIAN, 50, 400),
+            new IngredientTemplate("Parmesan Cheese", Unit.G, IngredientCategory.VEGETARIAN, 20, 150),
+            new IngredientTemplate("Chicken Breast", Unit.G, IngredientCategory.POULTRY, 200, 1000),
+            new IngredientTemplate("Beef Mince", Unit.G, IngredientCategory.MEAT, 200, 1000),
+            new IngredientTemplate("Bacon", Unit.G, IngredientCategory.MEAT, 50, 300),
+            new IngredientTemplate("Salmon Fillets", Unit.G, IngredientCategory.FISH, 200, 800),
+            new IngredientTemplate("Shrimp", Unit.G, IngredientCategory.SEAFOOD, 100, 500),
+            new IngredientTemplate("Tofu", Unit.G, IngredientCategory.VEGAN, 150, 600),
+            new IngredientTemplate("Chickpeas", Unit.G, IngredientCategory.VEGAN, 100, 500),
+            new IngredientTemplate("Coconut Milk", Unit.ML, IngredientCategory.VEGAN, 100, 400),
+            new IngredientTemplate("White Wine", Unit.ML, IngredientCategory.ALCOHOLIC, 50, 250),
+            new IngredientTemplate("Salt", Unit.TSP, IngredientCategory.VEGETARIAN, 1, 3),
+            new IngredientTemplate("Black Pepper", Unit.TSP, IngredientCategory.VEGETARIAN, 1, 2),
+            new IngredientTemplate("Paprika", Unit.TSP, IngredientCategory.VEGAN, 1, 3),
+            new IngredientTemplate("Soy Sauce", Unit.TBSP, IngredientCategory.VEGAN, 1, 4),
+            new IngredientTemplate("Lemon", Unit.PCS, IngredientCategory.VEGAN, 1, 3),
+            new IngredientTemplate("Potatoes", Unit.KG, IngredientCategory.VEGAN, 1, 2),
+            new IngredientTemplate("Vegetable Stock", Unit.L, IngredientCategory.VEGAN, 1, 2)
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int targetRecipes;
+    private final int batchSize;
+    private final long seed;
+
+    public CatalogGenerator(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${cookingbook.generator.recipes:0}") int targetRecipes,
+                            @Value("${cookingbook.generator.batch-size:1000}") int batchSize,
+                            @Value("${cookingbook.generator.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.targetRecipes = targetRecipes;
+        this.batchSize = batchSize;
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (targetRecipes <= 0) {
+            return;
+        }
+        Long existing = jdbcTemplate.queryForObject("select count(*) from recipe", Long.class);
+        long missing = targetRecipes - (existing != null ? existing : 0);
+        if (missing <= 0) {
+            log.info("Catalog already has {} recipes, generator skipped", existing);
+            return;
+        }
+        generate((int) missing);
+    }
+
+    public void generate(int count) {
+        // the seed is shifted by the catalog size, so topping up does not repeat earlier recipes
+        Long existing = jdbcTemplate.queryForObject("select count(*) from recipe", Long.class);
+        Random random = new Random(seed + (existing != null ? existing : 0));
+        long start = System.nanoTime();
+        Map<String, CatalogEntry> catalog = transactionTemplate.execute(status -> ensureCatalogIngredients());
+
+        for (int done = 0; done < count; done += batchSize) {
+            int size = Math.min(batchSize, count - done);
+            List<Recipe> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(randomRecipe(random, catalog));
+            }
+            transactionTemplate.executeWithoutResult(status -> insertBatch(batch, catalog));
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Generated {} synthetic recipes in {} ms", count, millis);
+    }
+
+    private Recipe randomRecipe(Random random, Map<String, CatalogEntry> catalog) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " +
+                DISHES[random.nextInt(DISHES.length)] + " #" + Integer.toString(random.nextInt(1 << 20), 36);
+        Recipe recipe = new Recipe(name, "Synthetic recipe for load testing.",
+                Difficulty.values()[random.nextInt(Difficulty.values().length)], 1 + random.nextInt(8));
+
+        int ingredientCount = 3 + random.nextInt(8);
+        boolean[] used = new boolean[INGREDIENTS.length];
+        for (int i = 0; i < ingredientCount; i++) {
+            int pick = random.nextInt(INGREDIENTS.length);
+            if (used[pick]) continue;
+            used[pick] = true;
+            IngredientTemplate t = INGREDIENTS[pick];
+            long quantity = t.minQty() + random.nextInt(t.maxQty() - t.minQty() + 1);
+            IngredientCategory category = catalog.get(CatalogIngredient.normalize(t.name())).category();
+            recipe.addIngredient(new Ingredient(t.name(), quantity, t.unit(), category));
+        }
+
+        int stepCount = 2 + random.nextInt(7);
+        for (int i = 1; i <= stepCount; i++) {
+            String target = recipe.getIngredients().get(random.nextInt(recipe.getIngredients().size())).getName();
+            int template = random.nextInt(STEP_TEMPLATES.length);
+            String description = String.format(STEP_TEMPLATES[template], target.toLowerCase());
+            recipe.addStep(new InstructionStep(i, description, random.nextInt(45), STEP_STATIONS[template], null));
+        }
+
+        recipe.refreshCategoryMask();
+
+        if (random.nextInt(4) > 0) {
+            recipe.setNutritionalInfo(new NutritionalInfo(150 + random.nextInt(700),
+                    round(5 + random.nextDouble() * 40), round(2 + random.nextDouble() * 35),
+                    round(5 + random.nextDouble() * 90)));
+        }
+        return recipe;
+    }
+
+    // dictionary rows by normalized name, adding the template ingredients that are missing
+    private Map<String, CatalogEntry> ensureCatalogIngredients() {
+        Map<String, CatalogEntry> entries = new HashMap<>();
+        readCatalog(entries);
+
+        List<Object[]> missing = new ArrayList<>();
+        for (IngredientTemplate t : INGREDIENTS) {
+            String normalized = CatalogIngredient.normalize(t.name());
+            if (!entries.containsKey(normalized)) {
+                missing.add(new Object[]{t.name(), normalized, t.category().name()});
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "insert into catalog_ingredient (name, normalized_name, category) values (?, ?, ?)", missing);
+            readCatalog(entries);
+        }
+        return entries;
+    }
+
+    private void readCatalog(Map<String, CatalogEntry> entries) {
+        jdbcTemplate.query("select id, normalized_name, category from catalog_ingredient", rs -> {
+            String category = rs.getString("category");
+            entries.put(rs.getString("normalized_name"), new CatalogEntry(rs.getLong("id"),
+                    category != null ? IngredientCategory.valueOf(category) : null));
+        });
+    }
+
+    private void insertBatch(List<Recipe> recipes, Map<String, CatalogEntry> catalog) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(
+                        "insert into recipe (name, description, difficulty, servings, category_mask, version) " +
+                                "values (?, ?, ?, ?, ?, 0)",
+                        new String[]{"ID"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Recipe r = recipes.get(i);
+                        ps.setString(1, r.getName());
+                        ps.setString(2, r.getDescription());
+                        ps.setString(3, r.getDifficulty().name());
+                        ps.setInt(4, r.getServings());
+                        ps.setLong(5, r.getCategoryMask());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return recipes.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        long[] ids = new long[recipes.size()];
+        List<Long> created = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) keyList.get(i).values().iterator().next()).longValue();
+            created.add(ids[i]);
+        }
+
+        List<Object[]> ingredientRows = new ArrayList<>();
+        List<Object[]> stepRows = new ArrayList<>();
+        List<Object[]> nutritionRows = new ArrayList<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            Recipe r = recipes.get(i);
+            for (Ingredient ing : r.getIngredients()) {
+                ingredientRows.add(new Object[]{catalog.get(ing.getCatalogIngredient().getNormalizedName()).id(),
+                        ing.getQuantity(), ing.getUnit().name(), ids[i]});
+            }
+            for (InstructionStep step : r.getSteps()) {
+                stepRows.add(new Object[]{step.getStepNumber(), step.getDescription(), step.getDurationMinutes(),
+                        step.getStationType().name(), ids[i]});
+            }
+            NutritionalInfo info = r.getNutritionalInfo();
+            if (info != null) {
+                nutritionRows.add(new Object[]{info.getCalories(), info.getProtein(), info.getFat(),
+                        info.getCarbohydrates(), ids[i]});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(
+                "insert into ingredient (catalog_ingredient_id, quantity, unit, recipe_id) values (?, ?, ?, ?)",
+                ingredientRows);
+        jdbcTemplate.batchUpdate(
+                "insert into instruction_step (step_number, description, duration_minutes, station_type, recipe_id) "
+                        + "values (?, ?, ?, ?, ?)",
+                stepRows);
+        jdbcTemplate.batchUpdate(
+                "insert into nutritional_info (calories, protein, fat, carbohydrates, recipe_id) values (?, ?, ?, ?, ?)",
+                nutritionRows);
+        eventPublisher.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.ChangeType.CREATED, created));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
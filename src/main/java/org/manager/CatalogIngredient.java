@@ -0,0 +1,44 @@
+package org.manager;
+
+import jakarta.persistence.*;
+
+import java.util.Locale;
+
+// Canonical ingredient dictionary: one row per ingredient, referenced by id from every recipe
+// that uses it. Lookups go through the normalized name, so "Garlic" and " garlic" are one entry.
+@Entity
+public class CatalogIngredient {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, unique = true)
+    private String normalizedName;
+
+    @Enumerated(EnumType.STRING)
+    private IngredientCategory category;
+
+    protected CatalogIngredient() { }
+
+    public CatalogIngredient(String name, IngredientCategory category) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Ingredient name must not be blank");
+        }
+        this.name = name.trim();
+        this.normalizedName = normalize(name);
+        this.category = category;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getNormalizedName() { return normalizedName; }
+    public IngredientCategory getCategory() { return category; }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,12 @@
+package org.manager;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CatalogIngredientRepository extends JpaRepository<CatalogIngredient, Long> {
+    List<CatalogIngredient> findByNormalizedNameIn(Collection<String> normalizedNames);
+}
@@ -0,0 +1,429 @@
+package org.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Binary copy of the catalog (recipes with ingredients, steps and nutrition) for warm starts.
+// Written periodically and on shutdown; at startup the file is memory-mapped and, if it still
+// matches the database, answers the REST DTO reads for a warm-up window while H2 and the
+// caches are cold. Changed recipes are invalidated individually; once anything changed,
+// list and search go back to the database. Enable with cookingbook.snapshot.path.
+//
+// Layout (big endian): 56 byte header, recipe records, then an index of (id, record offset)
+// pairs sorted by id for binary search. Strings are length-prefixed UTF-8, enums ordinals.
+@Component
+@Lazy(false)
+public class CatalogSnapshot implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    private static final int MAGIC = 0x43425331; // "CBS1"
+    private static final int FORMAT_VERSION = 2;
+    // enums are stored as ordinals, so a changed enum must invalidate older files
+    private static final int ENUM_LAYOUT = Objects.hash(Arrays.toString(Difficulty.values()),
+            Arrays.toString(Unit.values()), Arrays.toString(IngredientCategory.values()),
+            Arrays.toString(StationType.values()));
+    private static final int HEADER_SIZE = 56;
+    private static final int INDEX_ENTRY_SIZE = 16;
+    private static final int PAGE_SIZE = 1000;
+
+    // identifies the catalog state a snapshot was taken from. Every write path must change one of
+    // these: RecipeService saves force a version increment even when only child rows changed,
+    // portion scaling and the NutritionCalculator bulk writes bump the version in their UPDATEs.
+    record Fingerprint(long count, long maxId, long versionSum) { }
+
+    private static final class Mapped {
+        final ByteBuffer buffer;
+        final int recipeCount;
+        final int indexOffset;
+        final long servedUntilNanos;
+        final Set<Long> invalidated = ConcurrentHashMap.newKeySet();
+        volatile boolean listsStale;
+
+        Mapped(ByteBuffer buffer, int recipeCount, int indexOffset, long servedUntilNanos) {
+            this.buffer = buffer;
+            this.recipeCount = recipeCount;
+            this.indexOffset = indexOffset;
+            this.servedUntilNanos = servedUntilNanos;
+        }
+    }
+
+    private final Path path;
+    private final Duration serveFor;
+    private final JdbcTemplate jdbcTemplate;
+    private final RecipeQueryRepository recipeQueryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile Mapped mapped;
+
+    public CatalogSnapshot(JdbcTemplate jdbcTemplate,
+                           RecipeQueryRepository recipeQueryRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${cookingbook.snapshot.path:}") String path,
+                           @Value("${cookingbook.snapshot.serve-for:PT2M}") Duration serveFor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recipeQueryRepository = recipeQueryRepository;
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.serveFor = serveFor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // ===== Loading =====
+
+    // Before the web server starts accepting requests, so the first ones can already be served
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                log.warn("Catalog snapshot {} is too large to map, ignored", path);
+                return;
+            }
+            // the mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != ENUM_LAYOUT) {
+                log.info("Catalog snapshot {} has an unknown format, ignored", path);
+                return;
+            }
+            Fingerprint stored = new Fingerprint(buffer.getLong(12), buffer.getLong(20), buffer.getLong(28));
+            if (!stored.equals(fingerprint())) {
+                log.info("Catalog snapshot {} is outdated, ignored", path);
+                return;
+            }
+            mapped = new Mapped(buffer, buffer.getInt(44), (int) buffer.getLong(48),
+                    System.nanoTime() + serveFor.toNanos());
+            log.info("Serving {} recipes from catalog snapshot for {}", mapped.recipeCount, serveFor);
+        } catch (IOException | DataAccessException e) {
+            log.warn("Catalog snapshot {} could not be loaded: {}", path, e.getMessage());
+        }
+    }
+
+    // Startup runners (migrations, seeding, the generator) may have written in between
+    @EventListener(ApplicationReadyEvent.class)
+    public void revalidate() {
+        Mapped current = mapped;
+        if (current != null && !new Fingerprint(current.buffer.getLong(12), current.buffer.getLong(20),
+                current.buffer.getLong(28)).equals(fingerprint())) {
+            mapped = null;
+            log.info("Catalog changed during startup, snapshot dropped");
+        }
+    }
+
+    // Plain listener: invalidates before the commit, so no reader sees the old state afterwards
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Mapped current = mapped;
+        if (current != null) {
+            current.invalidated.addAll(event.recipeIds());
+            current.listsStale = true;
+        }
+    }
+
+    // ===== Reads, empty = not answered here, ask the database =====
+
+    public Optional<RecipeDto> findById(Long id, RecipeSelection selection) {
+        Mapped current = serving();
+        if (current == null || current.invalidated.contains(id)) {
+            return Optional.empty();
+        }
+        int offset = recordOffset(current, id);
+        return offset < 0 ? Optional.empty() : Optional.of(selection.applyTo(readRecipe(current.buffer, offset)));
+    }
+
+    public Optional<List<RecipeDto>> findAll(RecipeSelection selection) {
+        return scan(null, selection);
+    }
+
+    public Optional<List<RecipeDto>> findByNameContainingIgnoreCase(String name, RecipeSelection selection) {
+        return scan(name.toLowerCase(Locale.ROOT), selection);
+    }
+
+    private Optional<List<RecipeDto>> scan(String nameFilter, RecipeSelection selection) {
+        Mapped current = serving();
+        if (current == null || current.listsStale) {
+            return Optional.empty();
+        }
+        List<RecipeDto> result = new ArrayList<>();
+        for (int i = 0; i < current.recipeCount; i++) {
+            int offset = (int) current.buffer.getLong(current.indexOffset + i * INDEX_ENTRY_SIZE + 8);
+            if (nameFilter != null) {
+                // the name directly follows id and version
+                String name = new Reader(current.buffer, offset + 16).string();
+                if (name == null || !name.toLowerCase(Locale.ROOT).contains(nameFilter)) continue;
+            }
+            result.add(selection.applyTo(readRecipe(current.buffer, offset)));
+        }
+        return Optional.of(result);
+    }
+
+    private Mapped serving() {
+        Mapped current = mapped;
+        if (current != null && System.nanoTime() - current.servedUntilNanos > 0) {
+            mapped = null; // warm-up over, the mapping is released with the buffer
+            return null;
+        }
+        return current;
+    }
+
+    private static int recordOffset(Mapped current, long id) {
+        int low = 0;
+        int high = current.recipeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = current.indexOffset + mid * INDEX_ENTRY_SIZE;
+            long midId = current.buffer.getLong(entry);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return (int) current.buffer.getLong(entry + 8);
+            }
+        }
+        return -1;
+    }
+
+    private static RecipeDto readRecipe(ByteBuffer buffer, int offset) {
+        Reader in = new Reader(buffer, offset);
+        long id = in.longValue();
+        long version = in.longValue();
+        String name = in.string();
+        String description = in.string();
+        Difficulty difficulty = in.enumValue(Difficulty.values());
+        int servings = in.intValue();
+
+        int ingredientCount = in.intValue();
+        List<IngredientDto> ingredients = new ArrayList<>(ingredientCount);
+        for (int i = 0; i < ingredientCount; i++) {
+            ingredients.add(new IngredientDto(in.longValue(), in.string(), in.longValue(),
+                    in.enumValue(Unit.values()), in.enumValue(IngredientCategory.values())));
+        }
+
+        int stepCount = in.intValue();
+        List<StepDto> steps = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            steps.add(new StepDto(in.longValue(), in.intValue(), in.string(), in.intValue(),
+                    in.enumValue(StationType.values()), in.string()));
+        }
+
+        NutritionDto nutrition = in.byteValue() == 1
+                ? new NutritionDto(in.intValue(), in.doubleValue(), in.doubleValue(), in.doubleValue())
+                : null;
+        return new RecipeDto(id, version, name, description, difficulty, servings, ingredients, steps, nutrition);
+    }
+
+    // Sequential absolute reads, so readers never share a buffer position
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        Reader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        long longValue() { long v = buffer.getLong(position); position += 8; return v; }
+        int intValue() { int v = buffer.getInt(position); position += 4; return v; }
+        byte byteValue() { return buffer.get(position++); }
+        double doubleValue() { double v = buffer.getDouble(position); position += 8; return v; }
+
+        <E extends Enum<E>> E enumValue(E[] values) {
+            byte ordinal = byteValue();
+            return ordinal < 0 ? null : values[ordinal];
+        }
+
+        String string() {
+            int length = intValue();
+            if (length < 0) return null;
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // ===== Writing =====
+
+    @Scheduled(initialDelayString = "${cookingbook.snapshot.write-interval:PT10M}",
+            fixedDelayString = "${cookingbook.snapshot.write-interval:PT10M}")
+    public void writePeriodically() {
+        if (path != null) {
+            write();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void writeOnShutdown() {
+        if (path != null) {
+            write();
+        }
+    }
+
+    // Written to a temporary file and moved into place, a mapped older file stays readable
+    public synchronized boolean write() {
+        long start = System.nanoTime();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            int[] written = readOnlyTransaction.execute(status -> writeTo(temporary));
+            if (written == null) {
+                Files.deleteIfExists(temporary);
+                log.info("Catalog changed while writing the snapshot, retrying next time");
+                return false;
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote catalog snapshot of {} recipes ({} KiB) in {} ms",
+                    written[0], written[1] / 1024, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            log.warn("Catalog snapshot could not be written: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // returns {recipes, bytes}, or null when the catalog changed during the walk
+    private int[] writeTo(Path file) {
+        Fingerprint before = fingerprint();
+        int recipeCount = 0;
+        int indexOffset;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.write(new byte[HEADER_SIZE]); // filled in below, once the counts are known
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+            DataOutputStream index = new DataOutputStream(indexBytes);
+
+            Long afterId = 0L;
+            List<RecipeDto> page;
+            do {
+                page = recipeQueryRepository.findPage(afterId, PAGE_SIZE);
+                for (RecipeDto recipe : page) {
+                    index.writeLong(recipe.id());
+                    index.writeLong(out.size());
+                    writeRecipe(out, recipe);
+                    recipeCount++;
+                    afterId = recipe.id();
+                }
+            } while (page.size() == PAGE_SIZE);
+
+            indexOffset = out.size();
+            indexBytes.writeTo(out);
+            if (out.size() == Integer.MAX_VALUE) { // DataOutputStream stops counting there
+                throw new IOException("Catalog exceeds the 2 GiB snapshot limit");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Fingerprint after = fingerprint();
+        if (!after.equals(before)) {
+            return null;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(ENUM_LAYOUT)
+                .putLong(before.count()).putLong(before.maxId()).putLong(before.versionSum())
+                .putLong(System.currentTimeMillis())
+                .putInt(recipeCount).putLong(indexOffset)
+                .flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(header, 0);
+            channel.force(true);
+            return new int[]{recipeCount, (int) channel.size()};
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeRecipe(DataOutputStream out, RecipeDto recipe) throws IOException {
+        out.writeLong(recipe.id());
+        out.writeLong(recipe.version());
+        writeString(out, recipe.name());
+        writeString(out, recipe.description());
+        writeEnum(out, recipe.difficulty());
+        out.writeInt(recipe.servings());
+
+        out.writeInt(recipe.ingredients().size());
+        for (IngredientDto ing : recipe.ingredients()) {
+            out.writeLong(ing.id());
+            writeString(out, ing.name());
+            out.writeLong(ing.quantity());
+            writeEnum(out, ing.unit());
+            writeEnum(out, ing.category());
+        }
+
+        out.writeInt(recipe.steps().size());
+        for (StepDto step : recipe.steps()) {
+            out.writeLong(step.id());
+            out.writeInt(step.stepNumber());
+            writeString(out, step.description());
+            out.writeInt(step.durationMinutes());
+            writeEnum(out, step.stationType());
+            writeString(out, step.dependsOn());
+        }
+
+        NutritionDto nutrition = recipe.nutrition();
+        out.writeByte(nutrition != null ? 1 : 0);
+        if (nutrition != null) {
+            out.writeInt(nutrition.calories());
+            out.writeDouble(nutrition.protein());
+            out.writeDouble(nutrition.fat());
+            out.writeDouble(nutrition.carbohydrates());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? -1 : value.ordinal());
+    }
+
+    private Fingerprint fingerprint() {
+        return jdbcTemplate.queryForObject(
+                "select count(*), coalesce(max(id), 0), coalesce(sum(version), 0) from recipe",
+                (rs, row) -> new Fingerprint(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+}
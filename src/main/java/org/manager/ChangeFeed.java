@@ -0,0 +1,126 @@
+package org.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Change data capture for downstream systems. Every RecipeChangedEvent is appended to the outbox
+// table by a plain (synchronous) listener, i.e. inside the transaction that made the change: the
+// change and its record commit or roll back together. Consumers read pages after the last offset
+// they processed; entries come with the recipe's current state, so no follow-up GETs are needed.
+//
+// Offsets are handed out before commit, so a transaction holding offset 10 may commit after one
+// holding 11. Offsets are therefore only taken under `offsets`, one sequence value per row, and
+// registered as in flight in the same step. A page stops below the lowest offset still in flight,
+// and never goes past the highest offset handed out when the page started: a consumer at 11 would
+// otherwise never see 10. (Per JVM: with several instances writing, use one feed reader per node.)
+@Component
+public class ChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // recipe is null for DELETED, and when the recipe has been deleted since
+    public record Change(long offset, RecipeChangedEvent.ChangeType type, Long recipeId, Instant at, RecipeDto recipe) { }
+
+    public record ChangePage(List<Change> changes, long nextOffset) { }
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RecipeQueryRepository recipeQueryRepository;
+    private final Duration retention;
+    private final Object offsets = new Object();
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // highest offset handed out by this JVM, -1 until known; guarded by offsets
+    private long highestAssigned = -1;
+
+    public ChangeFeed(OutboxEventRepository outboxEventRepository, RecipeQueryRepository recipeQueryRepository,
+                      @Value("${cookingbook.outbox.retention:P7D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.recipeQueryRepository = recipeQueryRepository;
+        this.retention = retention;
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Instant now = Instant.now();
+        List<OutboxEvent> records = new ArrayList<>(event.recipeIds().size());
+        for (Long recipeId : event.recipeIds()) {
+            records.add(new OutboxEvent(event.type(), recipeId, now));
+        }
+        if (records.isEmpty()) return;
+
+        synchronized (offsets) {
+            // persist draws the ids (the inserts follow at flush); without a surrounding
+            // transaction saveAll commits before the lock is released
+            records = outboxEventRepository.saveAll(records);
+            long first = records.get(0).getId();
+            long last = records.get(records.size() - 1).getId();
+            highestAssigned = Math.max(highestAssigned, last);
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+            inFlight.add(first);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(first);
+                }
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ChangePage read(long after, int limit) {
+        long before;
+        synchronized (offsets) {
+            if (highestAssigned < 0) {
+                // nothing written since startup: every existing row is committed
+                highestAssigned = outboxEventRepository.findMaxId();
+            }
+            before = inFlight.isEmpty() ? highestAssigned + 1 : inFlight.first();
+        }
+        List<OutboxEvent> records = outboxEventRepository.findByIdGreaterThanAndIdLessThanOrderById(
+                after, before, Limit.of(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)));
+
+        List<Long> live = new ArrayList<>();
+        for (OutboxEvent record : records) {
+            if (record.getType() != RecipeChangedEvent.ChangeType.DELETED) live.add(record.getRecipeId());
+        }
+        Map<Long, RecipeDto> current = new HashMap<>();
+        for (RecipeDto dto : recipeQueryRepository.findByIds(live.stream().distinct().toList())) {
+            current.put(dto.id(), dto);
+        }
+
+        List<Change> changes = new ArrayList<>(records.size());
+        for (OutboxEvent record : records) {
+            changes.add(new Change(record.getId(), record.getType(), record.getRecipeId(), record.getCreatedAt(),
+                    current.get(record.getRecipeId())));
+        }
+        long next = records.isEmpty() ? after : records.get(records.size() - 1).getId();
+        return new ChangePage(changes, next);
+    }
+
+    @Scheduled(initialDelayString = "PT1H", fixedDelayString = "PT1H")
+    @Transactional
+    public void purgeExpired() {
+        int purged = outboxEventRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Outbox: purged {} change records older than {}", purged, retention);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+
+// Delta feed for downstream systems: remember nextOffset (or the last offset seen) and pass it
+// as ?after= on the next call, instead of pulling the whole catalog
+@RestController
+@RequestMapping("/api/recipes/changes")
+public class ChangeFeedController {
+
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    private final ChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeed changeFeed, ObjectMapper objectMapper) {
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+    }
+
+    // GET one page of changes after an offset
+    @GetMapping
+    public ChangeFeed.ChangePage changes(@RequestParam(defaultValue = "0") long after,
+                                         @RequestParam(defaultValue = "500") int limit) {
+        return changeFeed.read(after, limit);
+    }
+
+    // GET every change after an offset as newline-delimited JSON, one change per line; ends when caught up
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(defaultValue = "0") long after) {
+        StreamingResponseBody body = (OutputStream out) -> {
+            long offset = after;
+            while (true) {
+                ChangeFeed.ChangePage page = changeFeed.read(offset, STREAM_PAGE_SIZE);
+                if (page.changes().isEmpty()) break;
+                for (ChangeFeed.Change change : page.changes()) {
+                    out.write(objectMapper.writeValueAsBytes(change));
+                    out.write('\n');
+                }
+                out.flush();
+                offset = page.nextOffset();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+}
@@ -0,0 +1,65 @@
+package org.manager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single-flight in front of the hot REST reads: concurrent identical by-id and search requests
+// (the lunch-rush pattern) run one query and share its DTOs. Keys carry a generation that moves
+// on every committed recipe change, so a request arriving after a write never joins a query
+// that started before it.
+// Metrics: cookingbook.reads{operation, result=executed|coalesced} and cookingbook.reads.in_flight.
+@Component
+public class CoalescingRecipeReads {
+
+    private record ByIdKey(long generation, Long id, RecipeSelection selection) { }
+
+    private record SearchKey(long generation, String name, RecipeSelection selection, Diet diet) { }
+
+    private final RecipeService recipeService;
+    private final AtomicLong generation = new AtomicLong();
+    private final SingleFlight<ByIdKey, Optional<RecipeDto>> byId;
+    private final SingleFlight<SearchKey, List<RecipeDto>> search;
+
+    public CoalescingRecipeReads(RecipeService recipeService, MeterRegistry meterRegistry) {
+        this.recipeService = recipeService;
+        this.byId = new SingleFlight<>(listener(meterRegistry, "by-id"));
+        this.search = new SingleFlight<>(listener(meterRegistry, "search"));
+        Gauge.builder("cookingbook.reads.in_flight", () -> byId.inFlight() + search.inFlight())
+                .description("Distinct reads currently executing")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    public Optional<RecipeDto> getRecipeDtoById(Long id, RecipeSelection selection) {
+        return byId.execute(new ByIdKey(generation.get(), id, selection),
+                () -> recipeService.getRecipeDtoById(id, selection));
+    }
+
+    public List<RecipeDto> searchRecipeDtosByName(String name, RecipeSelection selection, Diet diet) {
+        return search.execute(new SearchKey(generation.get(), name, selection, diet),
+                () -> List.copyOf(recipeService.searchRecipeDtosByName(name, selection, diet)));
+    }
+
+    private static SingleFlight.Listener listener(MeterRegistry meterRegistry, String operation) {
+        Counter executed = Counter.builder("cookingbook.reads")
+                .tag("operation", operation).tag("result", "executed")
+                .description("Reads that ran their own query")
+                .register(meterRegistry);
+        Counter coalesced = Counter.builder("cookingbook.reads")
+                .tag("operation", operation).tag("result", "coalesced")
+                .description("Reads that shared the result of an identical read already running")
+                .register(meterRegistry);
+        return wasCoalesced -> (wasCoalesced ? coalesced : executed).increment();
+    }
+}
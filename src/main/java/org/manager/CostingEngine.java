@@ -0,0 +1,238 @@
+package org.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Cost per recipe and per serving from IngredientPrice, cached for every recipe. Keeps the ingredient
+// lines of each recipe (catalog ingredient, quantity in g/ml/pieces) and a reverse index from catalog
+// ingredient to the recipes using it, so a price change recomputes only the recipes it affects.
+// Recipe edits arrive through RecipeChangedEvent like for the other in-memory indexes.
+@Component
+public class CostingEngine {
+
+    // unpricedIngredients = lines without a price, or priced in another dimension (kg vs pieces);
+    // they are left out of the total
+    public record RecipeCost(Long recipeId, BigDecimal total, BigDecimal perServing, int unpricedIngredients) { }
+
+    record PriceChangedEvent(Long catalogIngredientId) { }
+
+    private record Line(long catalogIngredientId, double baseQuantity, Unit.Dimension dimension) { }
+
+    private record UnitPrice(double perBaseUnit, Unit.Dimension dimension) { }
+
+    private record Costed(int servings, List<Line> lines) { }
+
+    private final IngredientPriceRepository priceRepository;
+    private final CatalogIngredientRepository catalogIngredientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, UnitPrice> prices = new HashMap<>();
+    private final Map<Long, Costed> recipes = new HashMap<>();
+    private final Map<Long, Set<Long>> recipesByIngredient = new HashMap<>();
+    private final Map<Long, RecipeCost> costs = new HashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CostingEngine(IngredientPriceRepository priceRepository,
+                         CatalogIngredientRepository catalogIngredientRepository,
+                         ApplicationEventPublisher eventPublisher) {
+        this.priceRepository = priceRepository;
+        this.catalogIngredientRepository = catalogIngredientRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, UnitPrice> loadedPrices = new HashMap<>();
+        for (IngredientPrice price : priceRepository.findAll()) {
+            loadedPrices.put(price.getCatalogIngredient().getId(), unitPrice(price));
+        }
+        Map<Long, Costed> loaded = load(null);
+        lock.writeLock().lock();
+        try {
+            prices.clear();
+            prices.putAll(loadedPrices);
+            recipes.clear();
+            recipesByIngredient.clear();
+            costs.clear();
+            loaded.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Map<Long, Costed> loaded = event.type() == RecipeChangedEvent.ChangeType.DELETED
+                ? Map.of() : load(event.recipeIds());
+        lock.writeLock().lock();
+        try {
+            for (Long id : event.recipeIds()) {
+                remove(id);
+                Costed costed = loaded.get(id);
+                if (costed != null) put(id, costed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPriceChanged(PriceChangedEvent event) {
+        Optional<UnitPrice> price = priceRepository.findByCatalogIngredientId(event.catalogIngredientId())
+                .map(CostingEngine::unitPrice);
+        lock.writeLock().lock();
+        try {
+            if (price.isPresent()) {
+                prices.put(event.catalogIngredientId(), price.get());
+            } else {
+                prices.remove(event.catalogIngredientId());
+            }
+            for (Long recipeId : recipesByIngredient.getOrDefault(event.catalogIngredientId(), Set.of())) {
+                costs.put(recipeId, cost(recipeId, recipes.get(recipeId)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<RecipeCost> costOf(Long recipeId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(costs.get(recipeId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<IngredientPrice> getPrices() {
+        return priceRepository.findAll();
+    }
+
+    // Empty when the ingredient is not in the dictionary; affected costs are recomputed after commit
+    @Transactional
+    public Optional<IngredientPrice> setPrice(Long catalogIngredientId, BigDecimal price, double quantity, Unit unit) {
+        return catalogIngredientRepository.findById(catalogIngredientId).map(ingredient -> {
+            IngredientPrice stored = priceRepository.findByCatalogIngredientId(catalogIngredientId)
+                    .map(existing -> {
+                        existing.update(price, quantity, unit);
+                        return existing;
+                    })
+                    .orElseGet(() -> priceRepository.save(new IngredientPrice(ingredient, price, quantity, unit)));
+            eventPublisher.publishEvent(new PriceChangedEvent(catalogIngredientId));
+            return stored;
+        });
+    }
+
+    @Transactional
+    public boolean removePrice(Long catalogIngredientId) {
+        Optional<IngredientPrice> existing = priceRepository.findByCatalogIngredientId(catalogIngredientId);
+        existing.ifPresent(price -> {
+            priceRepository.delete(price);
+            eventPublisher.publishEvent(new PriceChangedEvent(catalogIngredientId));
+        });
+        return existing.isPresent();
+    }
+
+    private void put(Long recipeId, Costed costed) {
+        recipes.put(recipeId, costed);
+        for (Line line : costed.lines()) {
+            recipesByIngredient.computeIfAbsent(line.catalogIngredientId(), k -> new HashSet<>()).add(recipeId);
+        }
+        costs.put(recipeId, cost(recipeId, costed));
+    }
+
+    private void remove(Long recipeId) {
+        Costed previous = recipes.remove(recipeId);
+        costs.remove(recipeId);
+        if (previous == null) return;
+        for (Line line : previous.lines()) {
+            Set<Long> users = recipesByIngredient.get(line.catalogIngredientId());
+            if (users != null && users.remove(recipeId) && users.isEmpty()) {
+                recipesByIngredient.remove(line.catalogIngredientId());
+            }
+        }
+    }
+
+    private RecipeCost cost(Long recipeId, Costed costed) {
+        double total = 0;
+        int unpriced = 0;
+        for (Line line : costed.lines()) {
+            UnitPrice price = prices.get(line.catalogIngredientId());
+            if (price == null || price.dimension() != line.dimension()) {
+                unpriced++;
+            } else {
+                total += line.baseQuantity() * price.perBaseUnit();
+            }
+        }
+        return new RecipeCost(recipeId, money(total),
+                money(costed.servings() > 0 ? total / costed.servings() : total), unpriced);
+    }
+
+    private static BigDecimal money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static UnitPrice unitPrice(IngredientPrice price) {
+        return new UnitPrice(price.pricePerBaseUnit(), price.getUnit().dimension());
+    }
+
+    // All recipes when ids is null; two projections, no entities
+    private Map<Long, Costed> load(Collection<Long> ids) {
+        String where = ids == null ? "" : " where r.id in :ids";
+        Map<Long, List<Line>> lines = new HashMap<>();
+        for (Object[] row : query("select r.id, i.catalogIngredient.id, i.quantity, i.unit "
+                + "from Ingredient i join i.recipe r" + where, ids)) {
+            Unit unit = (Unit) row[3];
+            lines.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add(unit == null
+                    ? new Line((Long) row[1], 0, null)
+                    : new Line((Long) row[1], unit.toBase((Long) row[2]), unit.dimension()));
+        }
+        Map<Long, Costed> loaded = new HashMap<>();
+        for (Object[] row : query("select r.id, r.servings from Recipe r" + where, ids)) {
+            Long id = (Long) row[0];
+            loaded.put(id, new Costed((Integer) row[1], lines.getOrDefault(id, List.of())));
+        }
+        return loaded;
+    }
+
+    // both statements filter by recipe id, so the chunks' results simply add up
+    private List<Object[]> query(String jpql, Collection<Long> ids) {
+        if (ids == null) {
+            return entityManager.createQuery(jpql, Object[].class).getResultList();
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (List<Long> chunk : RecipeQueryRepository.chunks(List.copyOf(ids))) {
+            TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+            query.setParameter("ids", chunk);
+            rows.addAll(query.getResultList());
+        }
+        return rows;
+    }
+}
@@ -3,13 +3,23 @@ package org.manager;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 
 @Configuration
 public class DataInitializer {
 
+    // after SchemaMigrations, before CatalogGenerator (which would otherwise make the catalog non-empty)
     @Bean
-    CommandLineRunner initDatabase(RecipeRepository recipeRepository) {
+    @Order(Ordered.HIGHEST_PRECEDENCE + 10)
+    CommandLineRunner initDatabase(RecipeRepository recipeRepository, RecipeService recipeService) {
         return args -> {
+            // The database is file based, only seed an empty catalog
+            if (recipeRepository.count() > 0) {
+                System.out.println("Sample data already present, skipping initialization.");
+                return;
+            }
+
             // Recipe 1: Spaghetti Carbonara (Vegetarian version without meat)
             Recipe carbonara = new Recipe(
                     "Spaghetti Carbonara",
@@ -33,7 +43,7 @@ public class DataInitializer {
             NutritionalInfo carbInfo = new NutritionalInfo(520, 18.5, 15.2, 72.3);
             carbonara.setNutritionalInfo(carbInfo);
 
-            recipeRepository.save(carbonara);
+            recipeService.saveRecipe(carbonara);
 
             // Recipe 2: Chicken Tikka Masala (Non-vegetarian)
             Recipe tikka = new Recipe(
@@ -60,7 +70,7 @@ public class DataInitializer {
             NutritionalInfo tikkaInfo = new NutritionalInfo(380, 32.0, 22.5, 12.8);
             tikka.setNutritionalInfo(tikkaInfo);
 
-            recipeRepository.save(tikka);
+            recipeService.saveRecipe(tikka);
 
             // Recipe 3: Greek Salad (Vegetarian)
             Recipe greekSalad = new Recipe(
@@ -87,7 +97,7 @@ public class DataInitializer {
             NutritionalInfo saladInfo = new NutritionalInfo(220, 8.5, 16.8, 12.5);
             greekSalad.setNutritionalInfo(saladInfo);
 
-            recipeRepository.save(greekSalad);
+            recipeService.saveRecipe(greekSalad);
 
             // Recipe 4: Grilled Salmon (Non-vegetarian with fish)
             Recipe salmon = new Recipe(
@@ -112,7 +122,7 @@ public class DataInitializer {
             NutritionalInfo salmonInfo = new NutritionalInfo(320, 28.0, 22.0, 2.5);
             salmon.setNutritionalInfo(salmonInfo);
 
-            recipeRepository.save(salmon);
+            recipeService.saveRecipe(salmon);
 
             System.out.println("Sample data initialized successfully!");
         };
@@ -0,0 +1,62 @@
+package org.manager;
+
+import java.util.Collection;
+
+// Diet and allergen rules as bitwise predicates over a recipe's category mask
+// (bit n set = some ingredient has IngredientCategory with ordinal n, see Recipe.categoryMask).
+// Every rule reduces to "none of these bits": the same test runs in Java and, via bitand, in SQL.
+// Ingredients without a category set the fixed UNCATEGORIZED bit instead, so "only of" rules
+// do not treat them as safe.
+public enum Diet {
+    VEGETARIAN(noneOf(IngredientCategory.MEAT, IngredientCategory.POULTRY,
+            IngredientCategory.FISH, IngredientCategory.SEAFOOD)),
+    PESCATARIAN(noneOf(IngredientCategory.MEAT, IngredientCategory.POULTRY)),
+    // VEGETARIAN ingredients are the animal-derived ones (dairy, eggs, honey)
+    VEGAN(noneOf(IngredientCategory.VEGETARIAN, IngredientCategory.MEAT, IngredientCategory.POULTRY,
+            IngredientCategory.FISH, IngredientCategory.SEAFOOD)),
+    // an allergen claim is only made when every ingredient is marked as safe
+    GLUTEN_FREE(onlyOf(IngredientCategory.GLUTEN_FREE)),
+    NO_ALCOHOL(noneOf(IngredientCategory.ALCOHOLIC));
+
+    // well above the category bits, so new IngredientCategory values do not move it
+    static final long UNCATEGORIZED = 1L << 62;
+
+    private final long forbiddenMask;
+
+    Diet(long forbiddenMask) {
+        this.forbiddenMask = forbiddenMask;
+    }
+
+    public long forbiddenMask() {
+        return forbiddenMask;
+    }
+
+    public boolean matches(long categoryMask) {
+        return (categoryMask & forbiddenMask) == 0;
+    }
+
+    public static long maskOf(Collection<Ingredient> ingredients) {
+        long mask = 0;
+        for (Ingredient ingredient : ingredients) {
+            mask |= ingredient.getCategory() != null ? bit(ingredient.getCategory()) : UNCATEGORIZED;
+        }
+        return mask;
+    }
+
+    static long bit(IngredientCategory category) {
+        return 1L << category.ordinal();
+    }
+
+    private static long noneOf(IngredientCategory... categories) {
+        long mask = 0;
+        for (IngredientCategory category : categories) {
+            mask |= bit(category);
+        }
+        return mask;
+    }
+
+    private static long onlyOf(IngredientCategory... categories) {
+        long all = (1L << IngredientCategory.values().length) - 1 | UNCATEGORIZED;
+        return all & ~noneOf(categories);
+    }
+}
@@ -1,11 +1,18 @@
 package org.manager;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-public class GourmetGuideApplication {
+@ImportRuntimeHints(NativeRuntimeHints.class)
+@EnableScheduling // periodic CatalogSnapshot writes
+@Push // server push for the live catalog updates in RecipeListView
+public class GourmetGuideApplication implements AppShellConfigurator {
     public static void main(String[] args) {
         SpringApplication.run(GourmetGuideApplication.class, args);
     }
-}
\ No newline at end of file
+}
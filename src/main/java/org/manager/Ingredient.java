@@ -1,41 +1,56 @@
 package org.manager;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_ingredient_catalog_ingredient", columnList = "catalog_ingredient_id"))
 public class Ingredient {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String name;
+    // name and category live in the shared dictionary; not null is enforced by SchemaMigrations,
+    // so that ddl-auto can add the column to tables that already have rows
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "catalog_ingredient_id")
+    private CatalogIngredient catalogIngredient;
 
     private long quantity;
 
     @Enumerated(EnumType.STRING)
     private Unit unit;
 
-    @Enumerated(EnumType.STRING)
-    private IngredientCategory category;
-
     @ManyToOne(optional = false)
     @JoinColumn(name = "recipe_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Recipe recipe;
 
     protected Ingredient() { }
 
+    // The dictionary entry is resolved by name when the recipe is saved through RecipeService
     public Ingredient(String name, long quantity, Unit unit, IngredientCategory category) {
+        this(new CatalogIngredient(name, category), quantity, unit);
+    }
+
+    public Ingredient(CatalogIngredient catalogIngredient, long quantity, Unit unit) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be > 0");}
-        this.name = name;
+        this.catalogIngredient = catalogIngredient;
         this.quantity = quantity;
         this.unit = unit;
-        this.category = category;
     }
 
     public Long getId() { return id; }
-    public String getName() { return name; }
+    public String getName() { return catalogIngredient.getName(); }
+    public IngredientCategory getCategory() { return catalogIngredient.getCategory(); }
+
+    public CatalogIngredient getCatalogIngredient() { return catalogIngredient; }
+    public void setCatalogIngredient(CatalogIngredient catalogIngredient) { this.catalogIngredient = catalogIngredient; }
 
     public long getQuantity() { return quantity; }
     public void setQuantity(long quantity) {
@@ -46,7 +61,7 @@ public class Ingredient {
     }
 
     public Unit getUnit() { return unit; }
-    public IngredientCategory getCategory() { return category; }
+    public void setUnit(Unit unit) { this.unit = unit; }
 
     public Recipe getRecipe() { return recipe; }
     void setRecipe(Recipe recipe) { this.recipe = recipe; }
@@ -0,0 +1,13 @@
+package org.manager;
+
+public record IngredientDto(Long id, String name, long quantity, Unit unit, IngredientCategory category) {
+
+    public static IngredientDto from(Ingredient ingredient) {
+        return new IngredientDto(ingredient.getId(), ingredient.getName(), ingredient.getQuantity(),
+                ingredient.getUnit(), ingredient.getCategory());
+    }
+
+    public Ingredient toEntity() {
+        return new Ingredient(name, quantity, unit, category);
+    }
+}
@@ -0,0 +1,57 @@
+package org.manager;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+
+// What a dictionary ingredient costs: price for a quantity in a unit, e.g. 2.49 per 1 KG or 0.30 per 1 PCS
+@Entity
+public class IngredientPrice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(optional = false, fetch = FetchType.EAGER)
+    @JoinColumn(name = "catalog_ingredient_id", nullable = false, unique = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private CatalogIngredient catalogIngredient;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal price;
+
+    private double quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Unit unit;
+
+    protected IngredientPrice() { }
+
+    public IngredientPrice(CatalogIngredient catalogIngredient, BigDecimal price, double quantity, Unit unit) {
+        this.catalogIngredient = catalogIngredient;
+        update(price, quantity, unit);
+    }
+
+    public void update(BigDecimal price, double quantity, Unit unit) {
+        if (price == null || price.signum() < 0) throw new IllegalArgumentException("price must be >= 0");
+        if (!(quantity > 0)) throw new IllegalArgumentException("quantity must be > 0");
+        if (unit == null) throw new IllegalArgumentException("unit is required");
+        this.price = price;
+        this.quantity = quantity;
+        this.unit = unit;
+    }
+
+    public Long getId() { return id; }
+    public CatalogIngredient getCatalogIngredient() { return catalogIngredient; }
+    public BigDecimal getPrice() { return price; }
+    public double getQuantity() { return quantity; }
+    public Unit getUnit() { return unit; }
+
+    // price of one g, ml or piece
+    public double pricePerBaseUnit() {
+        return price.doubleValue() / unit.toBase(quantity);
+    }
+}
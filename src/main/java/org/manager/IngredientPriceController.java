@@ -0,0 +1,52 @@
+package org.manager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ingredients")
+public class IngredientPriceController {
+
+    private final CostingEngine costingEngine;
+
+    @Autowired
+    public IngredientPriceController(CostingEngine costingEngine) {
+        this.costingEngine = costingEngine;
+    }
+
+    // GET all ingredient prices
+    @GetMapping("/prices")
+    public List<IngredientPriceDto> getPrices() {
+        return costingEngine.getPrices().stream().map(IngredientPriceDto::from).toList();
+    }
+
+    // PUT set the price of a dictionary ingredient; only recipes using it are recosted
+    @PutMapping("/{id}/price")
+    public ResponseEntity<IngredientPriceDto> setPrice(@PathVariable Long id, @RequestBody PriceRequest request) {
+        return costingEngine.setPrice(id, request.price(), request.quantity(), request.unit())
+                .map(price -> ResponseEntity.ok(IngredientPriceDto.from(price)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // DELETE the price of a dictionary ingredient
+    @DeleteMapping("/{id}/price")
+    public ResponseEntity<Void> removePrice(@PathVariable Long id) {
+        if (costingEngine.removePrice(id)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // Negative prices, zero quantities, missing units
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+}
@@ -0,0 +1,12 @@
+package org.manager;
+
+import java.math.BigDecimal;
+
+public record IngredientPriceDto(Long catalogIngredientId, String ingredient, BigDecimal price,
+                                 double quantity, Unit unit) {
+
+    public static IngredientPriceDto from(IngredientPrice price) {
+        return new IngredientPriceDto(price.getCatalogIngredient().getId(), price.getCatalogIngredient().getName(),
+                price.getPrice(), price.getQuantity(), price.getUnit());
+    }
+}
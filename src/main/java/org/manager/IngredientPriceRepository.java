@@ -0,0 +1,11 @@
+package org.manager;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IngredientPriceRepository extends JpaRepository<IngredientPrice, Long> {
+    Optional<IngredientPrice> findByCatalogIngredientId(Long catalogIngredientId);
+}
@@ -1,8 +1,14 @@
 package org.manager;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.Arrays;
 
 @Entity
+@DynamicUpdate
 public class InstructionStep {
 
     @Id
@@ -16,24 +22,72 @@ public class InstructionStep {
 
     private int durationMinutes;
 
+    // kitchen scheduling; null in rows from before the column, read as PREP
+    @Enumerated(EnumType.STRING)
+    private StationType stationType;
+
+    // comma separated step numbers that must be finished first;
+    // null = the previous step (a plain sequence), empty = none
+    private String dependsOn;
+
     @ManyToOne(optional = false)
     @JoinColumn(name = "recipe_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Recipe recipe;
 
     protected InstructionStep() { }
 
     public InstructionStep(int stepNumber, String description, int durationMinutes) {
+        this(stepNumber, description, durationMinutes, StationType.PREP, null);
+    }
+
+    public InstructionStep(int stepNumber, String description, int durationMinutes,
+                           StationType stationType, String dependsOn) {
         if (durationMinutes < 0) throw new IllegalArgumentException("durationMinutes must be >= 0");
+        parseDependsOn(dependsOn);
         this.stepNumber = stepNumber;
         this.description = description;
         this.durationMinutes = durationMinutes;
+        this.stationType = stationType;
+        this.dependsOn = dependsOn;
     }
 
-
     public Long getId() { return id; }
     public int getStepNumber() { return stepNumber; }
+    public void setStepNumber(int stepNumber) { this.stepNumber = stepNumber; }
     public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
     public int getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(int durationMinutes) {
+        if (durationMinutes < 0) throw new IllegalArgumentException("durationMinutes must be >= 0");
+        this.durationMinutes = durationMinutes;
+    }
+
+    public StationType getStationType() { return stationType != null ? stationType : StationType.PREP; }
+    public void setStationType(StationType stationType) { this.stationType = stationType; }
+    public String getDependsOn() { return dependsOn; }
+    public void setDependsOn(String dependsOn) {
+        parseDependsOn(dependsOn);
+        this.dependsOn = dependsOn;
+    }
+
+    // the step numbers this step waits for, or null when it just follows the previous step
+    public int[] getDependsOnStepNumbers() {
+        return parseDependsOn(dependsOn);
+    }
+
+    private static int[] parseDependsOn(String dependsOn) {
+        if (dependsOn == null) return null;
+        try {
+            return Arrays.stream(dependsOn.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .mapToInt(Integer::parseInt)
+                    .toArray();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("dependsOn must be comma separated step numbers: " + dependsOn);
+        }
+    }
 
     public Recipe getRecipe() { return recipe; }
     void setRecipe(Recipe recipe) { this.recipe = recipe; }
@@ -0,0 +1,262 @@
+package org.manager;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Plans a service window: a batch of recipes on a kitchen with a number of stations per StationType
+// and a number of cooks. Steps form a dependency graph per recipe (InstructionStep.dependsOn); a step
+// holds one station of its type and, unless the station runs unattended, one cook for its duration.
+// List scheduling with critical-path priority: whenever something frees up, the ready step with the
+// longest chain still ahead of it starts first. Event driven, O(n log n) in the number of steps.
+@Component
+public class KitchenScheduler {
+
+    // recipeIndex = position in the batch, so two portions of the same recipe stay apart
+    public record ScheduledStep(int recipeIndex, Long recipeId, String recipeName, int stepNumber,
+                                String description, StationType station, int stationIndex,
+                                Integer cook, int start, int end) { }
+
+    // lowerBound = no schedule can be shorter (longest chain, or the busiest station type / cooks)
+    public record KitchenSchedule(int makespanMinutes, int lowerBoundMinutes,
+                                  List<ScheduledStep> steps, List<ScheduledStep> criticalPath) { }
+
+    private static final class Task {
+        final int recipeIndex;
+        final Recipe recipe;
+        final InstructionStep step;
+        final int order; // tie-breaker, keeps schedules deterministic
+        final List<Task> predecessors = new ArrayList<>(2);
+        final List<Task> successors = new ArrayList<>(2);
+        int pending;
+        int chain; // this step plus the longest chain of steps depending on it
+        int start;
+        int end;
+        int stationIndex;
+        int cook = -1;
+
+        Task(int recipeIndex, Recipe recipe, InstructionStep step, int order) {
+            this.recipeIndex = recipeIndex;
+            this.recipe = recipe;
+            this.step = step;
+            this.order = order;
+        }
+
+        int duration() { return step.getDurationMinutes(); }
+        StationType station() { return step.getStationType(); }
+    }
+
+    private static final Comparator<Task> BY_PRIORITY =
+            Comparator.<Task>comparingInt(t -> -t.chain).thenComparingInt(t -> t.order);
+    private static final Comparator<Task> BY_END =
+            Comparator.<Task>comparingInt(t -> t.end).thenComparingInt(t -> t.order);
+
+    public KitchenSchedule schedule(Collection<Recipe> recipes, Map<StationType, Integer> stations, int cooks) {
+        if (cooks < 0) throw new IllegalArgumentException("cooks must be >= 0");
+        List<Task> tasks = buildTasks(recipes);
+        List<Task> topological = topologicalOrder(tasks);
+        for (int i = topological.size() - 1; i >= 0; i--) {
+            Task task = topological.get(i);
+            int longest = 0;
+            for (Task successor : task.successors) {
+                longest = Math.max(longest, successor.chain);
+            }
+            task.chain = task.duration() + longest;
+        }
+
+        Map<StationType, PriorityQueue<Task>> ready = new EnumMap<>(StationType.class);
+        Map<StationType, PriorityQueue<Integer>> freeStations = new EnumMap<>(StationType.class);
+        Map<StationType, Long> work = new EnumMap<>(StationType.class);
+        for (StationType type : StationType.values()) {
+            ready.put(type, new PriorityQueue<>(BY_PRIORITY));
+            PriorityQueue<Integer> free = new PriorityQueue<>();
+            for (int i = 0; i < stationCount(stations, type); i++) free.add(i);
+            freeStations.put(type, free);
+            work.put(type, 0L);
+        }
+        PriorityQueue<Integer> freeCooks = new PriorityQueue<>();
+        for (int i = 0; i < cooks; i++) freeCooks.add(i);
+
+        long cookWork = 0;
+        int lowerBound = 0;
+        for (Task task : tasks) {
+            StationType type = task.station();
+            if (freeStations.get(type).isEmpty()) {
+                throw new IllegalArgumentException("No " + type + " station for " + describe(task));
+            }
+            if (type.needsCook()) {
+                if (cooks == 0) throw new IllegalArgumentException("No cook for " + describe(task));
+                cookWork += task.duration();
+            }
+            work.merge(type, (long) task.duration(), Long::sum);
+            lowerBound = Math.max(lowerBound, task.chain);
+            task.pending = task.predecessors.size();
+            if (task.pending == 0) ready.get(type).add(task);
+        }
+        for (StationType type : StationType.values()) {
+            int count = stationCount(stations, type);
+            if (count > 0) lowerBound = Math.max(lowerBound, (int) ceilDiv(work.get(type), count));
+        }
+        if (cooks > 0) lowerBound = Math.max(lowerBound, (int) ceilDiv(cookWork, cooks));
+
+        PriorityQueue<Task> running = new PriorityQueue<>(BY_END);
+        int time = 0;
+        int done = 0;
+        while (done < tasks.size()) {
+            startReadyTasks(time, ready, freeStations, freeCooks, running);
+            time = running.peek().end;
+            while (!running.isEmpty() && running.peek().end == time) {
+                Task finished = running.poll();
+                done++;
+                freeStations.get(finished.station()).add(finished.stationIndex);
+                if (finished.cook >= 0) freeCooks.add(finished.cook);
+                for (Task successor : finished.successors) {
+                    if (--successor.pending == 0) ready.get(successor.station()).add(successor);
+                }
+            }
+        }
+
+        List<Task> byStart = new ArrayList<>(tasks);
+        byStart.sort(Comparator.<Task>comparingInt(t -> t.start).thenComparingInt(t -> t.order));
+        List<ScheduledStep> steps = new ArrayList<>(byStart.size());
+        for (Task task : byStart) steps.add(toScheduledStep(task));
+        return new KitchenSchedule(time, lowerBound, steps, criticalPath(tasks));
+    }
+
+    // Starts as many ready tasks as the free stations and cooks allow, most urgent first
+    private static void startReadyTasks(int time, Map<StationType, PriorityQueue<Task>> ready,
+                                        Map<StationType, PriorityQueue<Integer>> freeStations,
+                                        PriorityQueue<Integer> freeCooks, PriorityQueue<Task> running) {
+        while (true) {
+            Task best = null;
+            for (StationType type : StationType.values()) {
+                Task head = ready.get(type).peek();
+                if (head == null || freeStations.get(type).isEmpty()) continue;
+                if (type.needsCook() && freeCooks.isEmpty()) continue;
+                if (best == null || BY_PRIORITY.compare(head, best) < 0) best = head;
+            }
+            if (best == null) return;
+            ready.get(best.station()).poll();
+            best.start = time;
+            best.end = time + best.duration();
+            best.stationIndex = freeStations.get(best.station()).poll();
+            best.cook = best.station().needsCook() ? freeCooks.poll() : -1;
+            running.add(best);
+        }
+    }
+
+    private static List<Task> buildTasks(Collection<Recipe> recipes) {
+        List<Task> tasks = new ArrayList<>();
+        int recipeIndex = 0;
+        for (Recipe recipe : recipes) {
+            List<InstructionStep> steps = new ArrayList<>(recipe.getSteps());
+            steps.sort(Comparator.comparingInt(InstructionStep::getStepNumber));
+            Map<Integer, Task> byNumber = new HashMap<>();
+            List<Task> recipeTasks = new ArrayList<>(steps.size());
+            for (InstructionStep step : steps) {
+                Task task = new Task(recipeIndex, recipe, step, tasks.size());
+                if (byNumber.put(step.getStepNumber(), task) != null) {
+                    throw new IllegalArgumentException("Duplicate step " + step.getStepNumber()
+                            + " in recipe " + recipe.getName());
+                }
+                tasks.add(task);
+                recipeTasks.add(task);
+            }
+            for (int i = 0; i < recipeTasks.size(); i++) {
+                Task task = recipeTasks.get(i);
+                int[] dependsOn = task.step.getDependsOnStepNumbers();
+                if (dependsOn == null) {
+                    if (i > 0) link(recipeTasks.get(i - 1), task);
+                    continue;
+                }
+                for (int number : dependsOn) {
+                    Task predecessor = byNumber.get(number);
+                    if (predecessor == null) {
+                        throw new IllegalArgumentException(describe(task) + " depends on unknown step " + number);
+                    }
+                    link(predecessor, task);
+                }
+            }
+            recipeIndex++;
+        }
+        return tasks;
+    }
+
+    private static void link(Task predecessor, Task successor) {
+        predecessor.successors.add(successor);
+        successor.predecessors.add(predecessor);
+    }
+
+    private static List<Task> topologicalOrder(List<Task> tasks) {
+        Map<Task, Integer> indegree = new HashMap<>();
+        Deque<Task> queue = new ArrayDeque<>();
+        for (Task task : tasks) {
+            indegree.put(task, task.predecessors.size());
+            if (task.predecessors.isEmpty()) queue.add(task);
+        }
+        List<Task> order = new ArrayList<>(tasks.size());
+        while (!queue.isEmpty()) {
+            Task task = queue.poll();
+            order.add(task);
+            for (Task successor : task.successors) {
+                if (indegree.merge(successor, -1, Integer::sum) == 0) queue.add(successor);
+            }
+        }
+        if (order.size() < tasks.size()) {
+            for (Task task : tasks) {
+                if (indegree.get(task) > 0) {
+                    throw new IllegalArgumentException("Circular step dependencies in recipe " + task.recipe.getName());
+                }
+            }
+        }
+        return order;
+    }
+
+    // The longest dependency chain in the batch: the steps worth speeding up or starting earlier
+    private static List<ScheduledStep> criticalPath(List<Task> tasks) {
+        List<ScheduledStep> path = new ArrayList<>();
+        Task current = null;
+        for (Task task : tasks) {
+            if (task.predecessors.isEmpty() && (current == null || BY_PRIORITY.compare(task, current) < 0)) {
+                current = task;
+            }
+        }
+        while (current != null) {
+            path.add(toScheduledStep(current));
+            Task next = null;
+            for (Task successor : current.successors) {
+                if (next == null || BY_PRIORITY.compare(successor, next) < 0) next = successor;
+            }
+            current = next;
+        }
+        return path;
+    }
+
+    private static ScheduledStep toScheduledStep(Task task) {
+        return new ScheduledStep(task.recipeIndex, task.recipe.getId(), task.recipe.getName(),
+                task.step.getStepNumber(), task.step.getDescription(), task.station(), task.stationIndex,
+                task.cook >= 0 ? task.cook : null, task.start, task.end);
+    }
+
+    private static int stationCount(Map<StationType, Integer> stations, StationType type) {
+        Integer count = stations != null ? stations.get(type) : null;
+        return count != null ? Math.max(count, 0) : 0;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+
+    private static String describe(Task task) {
+        return "step " + task.step.getStepNumber() + " of recipe " + task.recipe.getName();
+    }
+}
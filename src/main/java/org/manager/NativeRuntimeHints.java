@@ -0,0 +1,68 @@
+package org.manager;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.interceptor.TransactionalProxy;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Reflection and proxy metadata for the GraalVM native image (mvn -Pnative native:compile).
+// Spring AOT derives most hints itself; these cover what Hibernate and Jackson reach reflectively.
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Hibernate instantiates entities through the protected constructors and uses field access
+        for (Class<?> entity : new Class<?>[]{Recipe.class, Ingredient.class, CatalogIngredient.class,
+                InstructionStep.class, NutritionalInfo.class, IngredientPrice.class,
+                OutboxEvent.class}) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        // Jackson (de)serializes the DTO records through their canonical constructors and accessors
+        for (Class<?> dto : new Class<?>[]{RecipeDto.class, IngredientDto.class, StepDto.class, NutritionDto.class,
+                RecipeRequest.class, RecipePatch.class, BulkDeleteRequest.class, ScheduleRequest.class,
+                KitchenScheduler.KitchenSchedule.class, KitchenScheduler.ScheduledStep.class,
+                IngredientPriceDto.class, PriceRequest.class, CostingEngine.RecipeCost.class,
+                ChangeFeed.Change.class, ChangeFeed.ChangePage.class,
+                AdmissionController.LimitsRequest.class, AdmissionControl.LimiterStatus.class,
+                RequestProfiler.ProfiledRequest.class, RequestProfiler.RepeatedStatement.class}) {
+            hints.reflection().registerType(dto,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        for (Class<?> enumType : new Class<?>[]{Difficulty.class, Unit.class, IngredientCategory.class, Diet.class,
+                StationType.class, Unit.Dimension.class,
+                AdmissionControl.EndpointClass.class}) {
+            hints.reflection().registerType(enumType, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.PUBLIC_FIELDS);
+        }
+
+        // JDK proxies Spring Data creates for the repository interfaces
+        for (Class<?> repository : new Class<?>[]{RecipeRepository.class, CatalogIngredientRepository.class,
+                IngredientPriceRepository.class, OutboxEventRepository.class}) {
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(
+                    repository, Repository.class, TransactionalProxy.class));
+        }
+
+        // JDBC wrappers of ProfilingDataSource
+        for (Class<?> jdbcType : new Class<?>[]{Connection.class, Statement.class, PreparedStatement.class,
+                CallableStatement.class, ResultSet.class}) {
+            hints.proxies().registerJdkProxy(jdbcType);
+        }
+
+        // per-100 g table read by NutritionCalculator
+        hints.resources().registerPattern("nutrients.csv");
+    }
+}
@@ -0,0 +1,249 @@
+package org.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Nutrition per serving derived from the ingredient list and the per-100 g table in nutrients.csv,
+// matched on the normalized dictionary name. Volumes and pieces are turned into grams with the
+// table's density and piece weight. A recipe only gets values when every ingredient is known, and
+// typed-in values (computed = false) are never overwritten; only derived rows follow the ingredients.
+@Component
+public class NutritionCalculator {
+
+    private static final Logger log = LoggerFactory.getLogger(NutritionCalculator.class);
+
+    private static final String TABLE = "nutrients.csv";
+
+    // per 100 g; gramsPerPiece 0 = not countable
+    record NutrientProfile(double kcal, double protein, double fat, double carbohydrates,
+                           double gramsPerMl, double gramsPerPiece) { }
+
+    record Line(String normalizedName, long quantity, Unit unit) { }
+
+    // per serving, rounded like the form does
+    record Nutrition(int calories, double protein, double fat, double carbohydrates) {
+
+        static Nutrition of(NutritionalInfo info) {
+            return new Nutrition(info.getCalories(), info.getProtein(), info.getFat(), info.getCarbohydrates());
+        }
+    }
+
+    private final Map<String, NutrientProfile> profiles;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NutritionCalculator(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.profiles = loadTable();
+    }
+
+    // Before a recipe is saved; fills in missing values, refreshes derived ones and removes derived
+    // values that no longer match an ingredient list
+    public void apply(Recipe recipe) {
+        List<Line> lines = new ArrayList<>();
+        for (Ingredient ing : recipe.getIngredients()) {
+            lines.add(new Line(ing.getCatalogIngredient().getNormalizedName(), ing.getQuantity(), ing.getUnit()));
+        }
+        Optional<Nutrition> nutrition = compute(lines, recipe.getServings());
+        NutritionalInfo info = recipe.getNutritionalInfo();
+        if (nutrition.isPresent()) {
+            Nutrition n = nutrition.get();
+            if (info == null) {
+                info = new NutritionalInfo(n.calories(), n.protein(), n.fat(), n.carbohydrates());
+                info.updateComputed(n.calories(), n.protein(), n.fat(), n.carbohydrates());
+                recipe.setNutritionalInfo(info);
+            } else if (info.isComputed() && !n.equals(Nutrition.of(info))) {
+                info.updateComputed(n.calories(), n.protein(), n.fat(), n.carbohydrates());
+            }
+        } else if (info != null && info.isComputed()) {
+            recipe.setNutritionalInfo(null);
+        }
+    }
+
+    // After portion scaling, which runs as bulk UPDATEs: per-serving values only move by the rounding
+    // of the scaled quantities, so only derived rows are touched. Only inside the scaling transaction,
+    // whose servings UPDATE already bumped the recipe version (a second bump here would put the
+    // version RecipeService.calculatePortions mirrors on the caller's copy out of step).
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recompute(Long recipeId) {
+        List<Line> lines = new ArrayList<>();
+        for (Object[] row : entityManager.createQuery("select c.normalizedName, i.quantity, i.unit "
+                        + "from Ingredient i join i.catalogIngredient c where i.recipe.id = :id", Object[].class)
+                .setParameter("id", recipeId)
+                .getResultList()) {
+            lines.add(new Line((String) row[0], (Long) row[1], (Unit) row[2]));
+        }
+        List<Integer> servings = entityManager.createQuery("select r.servings from Recipe r where r.id = :id", Integer.class)
+                .setParameter("id", recipeId)
+                .getResultList();
+        if (servings.isEmpty()) return;
+        compute(lines, servings.get(0)).ifPresent(n -> entityManager.createQuery("update NutritionalInfo n "
+                        + "set n.calories = :calories, n.protein = :protein, n.fat = :fat, n.carbohydrates = :carbohydrates "
+                        + "where n.recipe.id = :id and n.computed = true")
+                .setParameter("calories", n.calories())
+                .setParameter("protein", n.protein())
+                .setParameter("fat", n.fat())
+                .setParameter("carbohydrates", n.carbohydrates())
+                .setParameter("id", recipeId)
+                .executeUpdate());
+    }
+
+    // Whole catalog, e.g. after the nutrient table changed: two projections, the per-recipe math
+    // in parallel, then batched writes for the derived rows whose values actually differ. The changed
+    // recipes get a new version, like every other write (CatalogSnapshot, optimistic locking).
+    @Transactional
+    public int recomputeAll() {
+        Map<Long, List<Line>> lines = new HashMap<>();
+        for (Object[] row : entityManager.createQuery("select i.recipe.id, c.normalizedName, i.quantity, i.unit "
+                + "from Ingredient i join i.catalogIngredient c", Object[].class).getResultList()) {
+            lines.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                    .add(new Line((String) row[1], (Long) row[2], (Unit) row[3]));
+        }
+        Map<Long, Integer> servings = new HashMap<>();
+        for (Object[] row : entityManager.createQuery("select r.id, r.servings from Recipe r", Object[].class)
+                .getResultList()) {
+            servings.put((Long) row[0], (Integer) row[1]);
+        }
+        Map<Long, NutritionalInfoRow> stored = new HashMap<>();
+        for (Object[] row : entityManager.createQuery("select n.recipe.id, n.calories, n.protein, n.fat, "
+                + "n.carbohydrates, n.computed from NutritionalInfo n", Object[].class).getResultList()) {
+            stored.put((Long) row[0], new NutritionalInfoRow(
+                    new Nutrition((Integer) row[1], (Double) row[2], (Double) row[3], (Double) row[4]),
+                    (Boolean) row[5]));
+        }
+
+        Map<Long, Nutrition> computed = servings.entrySet().parallelStream()
+                .map(e -> Map.entry(e.getKey(), compute(lines.getOrDefault(e.getKey(), List.of()), e.getValue())))
+                .filter(e -> e.getValue().isPresent())
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().get()));
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Long> changed = new ArrayList<>();
+        computed.forEach((id, n) -> {
+            NutritionalInfoRow row = stored.get(id);
+            if (row == null) {
+                inserts.add(new Object[]{n.calories(), n.protein(), n.fat(), n.carbohydrates(), id});
+            } else if (row.computed() && !row.nutrition().equals(n)) {
+                updates.add(new Object[]{n.calories(), n.protein(), n.fat(), n.carbohydrates(), id});
+            } else {
+                return;
+            }
+            changed.add(id);
+        });
+        stored.forEach((id, row) -> {
+            if (row.computed() && !computed.containsKey(id)) {
+                deletes.add(new Object[]{id});
+                changed.add(id);
+            }
+        });
+
+        jdbcTemplate.batchUpdate("update nutritional_info set calories = ?, protein = ?, fat = ?, carbohydrates = ?, "
+                + "computed = true where recipe_id = ?", updates);
+        jdbcTemplate.batchUpdate("insert into nutritional_info (calories, protein, fat, carbohydrates, computed, recipe_id) "
+                + "values (?, ?, ?, ?, true, ?)", inserts);
+        jdbcTemplate.batchUpdate("delete from nutritional_info where recipe_id = ?", deletes);
+        List<Object[]> versions = new ArrayList<>(changed.size());
+        for (Long id : changed) {
+            versions.add(new Object[]{id});
+        }
+        jdbcTemplate.batchUpdate("update recipe set version = version + 1 where id = ?", versions);
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.ChangeType.UPDATED, changed));
+        }
+        log.info("Nutrition recomputed: {} derivable, {} changed", computed.size(), changed.size());
+        return changed.size();
+    }
+
+    private record NutritionalInfoRow(Nutrition nutrition, boolean computed) { }
+
+    // Empty when an ingredient is missing from the table or its unit cannot be turned into grams
+    Optional<Nutrition> compute(List<Line> lines, int servings) {
+        if (lines.isEmpty() || servings <= 0) return Optional.empty();
+        double kcal = 0, protein = 0, fat = 0, carbohydrates = 0;
+        for (Line line : lines) {
+            NutrientProfile profile = profiles.get(line.normalizedName());
+            double grams = profile != null ? grams(line, profile) : -1;
+            if (grams < 0) return Optional.empty();
+            kcal += grams * profile.kcal() / 100;
+            protein += grams * profile.protein() / 100;
+            fat += grams * profile.fat() / 100;
+            carbohydrates += grams * profile.carbohydrates() / 100;
+        }
+        return Optional.of(new Nutrition((int) Math.round(kcal / servings), round(protein / servings),
+                round(fat / servings), round(carbohydrates / servings)));
+    }
+
+    private static double grams(Line line, NutrientProfile profile) {
+        if (line.unit() == null) return -1;
+        double base = line.unit().toBase(line.quantity());
+        return switch (line.unit().dimension()) {
+            case MASS -> base;
+            case VOLUME -> base * profile.gramsPerMl();
+            case COUNT -> profile.gramsPerPiece() > 0 ? base * profile.gramsPerPiece() : -1;
+        };
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    private static Map<String, NutrientProfile> loadTable() {
+        Map<String, NutrientProfile> table = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(TABLE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                String[] cols = line.split(",", -1);
+                if (cols.length != 7) {
+                    throw new IllegalStateException(TABLE + ":" + number + ": expected 7 columns");
+                }
+                try {
+                    table.put(CatalogIngredient.normalize(cols[0]), new NutrientProfile(
+                            Double.parseDouble(cols[1]), Double.parseDouble(cols[2]),
+                            Double.parseDouble(cols[3]), Double.parseDouble(cols[4]),
+                            cols[5].isBlank() ? 1.0 : Double.parseDouble(cols[5]),
+                            cols[6].isBlank() ? 0 : Double.parseDouble(cols[6])));
+                } catch (NumberFormatException e) {
+                    throw new IllegalStateException(TABLE + ":" + number + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + TABLE, e);
+        }
+        return table;
+    }
+}
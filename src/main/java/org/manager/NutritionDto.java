@@ -0,0 +1,14 @@
+package org.manager;
+
+// values per serving, same as NutritionalInfo
+public record NutritionDto(int calories, double protein, double fat, double carbohydrates) {
+
+    public static NutritionDto from(NutritionalInfo info) {
+        if (info == null) return null;
+        return new NutritionDto(info.getCalories(), info.getProtein(), info.getFat(), info.getCarbohydrates());
+    }
+
+    public NutritionalInfo toEntity() {
+        return new NutritionalInfo(calories, protein, fat, carbohydrates);
+    }
+}
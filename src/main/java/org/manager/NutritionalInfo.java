@@ -1,6 +1,8 @@
 package org.manager;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 // values per serving
 // optional to a recipe
 @Entity
@@ -15,8 +17,13 @@ public class NutritionalInfo {
     private double fat;
     private double carbohydrates;
 
+    // derived from the ingredients by NutritionCalculator; false = typed in by hand
+    @Column(nullable = false, columnDefinition = "boolean default false not null")
+    private boolean computed;
+
     @OneToOne(optional = false)
     @JoinColumn(name = "recipe_id", unique = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Recipe recipe;
 
     protected NutritionalInfo() { }
@@ -34,6 +41,21 @@ public class NutritionalInfo {
     public double getFat() { return fat; }
     public double getCarbohydrates() { return carbohydrates; }
 
+    public boolean isComputed() { return computed; }
+
+    public void update(int calories, double protein, double fat, double carbohydrates) {
+        this.calories = calories;
+        this.protein = protein;
+        this.fat = fat;
+        this.carbohydrates = carbohydrates;
+        this.computed = false;
+    }
+
+    void updateComputed(int calories, double protein, double fat, double carbohydrates) {
+        update(calories, protein, fat, carbohydrates);
+        this.computed = true;
+    }
+
     public Recipe getRecipe() { return recipe; }
     void setRecipe(Recipe recipe) { this.recipe = recipe; }
 }
@@ -0,0 +1,41 @@
+package org.manager;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// One row per changed recipe, appended in the transaction that made the change (transactional outbox).
+// The id is the feed offset consumers resume from; one sequence call per row, so ids follow the
+// order ChangeFeed hands them out in (a pooled block could give a later writer a lower id).
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_event_created_at", columnList = "createdAt"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RecipeChangedEvent.ChangeType type;
+
+    @Column(nullable = false)
+    private Long recipeId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    protected OutboxEvent() { }
+
+    public OutboxEvent(RecipeChangedEvent.ChangeType type, Long recipeId, Instant createdAt) {
+        this.type = type;
+        this.recipeId = recipeId;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public RecipeChangedEvent.ChangeType getType() { return type; }
+    public Long getRecipeId() { return recipeId; }
+    public Instant getCreatedAt() { return createdAt; }
+}
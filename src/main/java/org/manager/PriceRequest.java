@@ -0,0 +1,7 @@
+package org.manager;
+
+import java.math.BigDecimal;
+
+// price for quantity of unit, e.g. {"price": 2.49, "quantity": 1, "unit": "KG"}
+public record PriceRequest(BigDecimal price, double quantity, Unit unit) {
+}
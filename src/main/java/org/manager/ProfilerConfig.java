@@ -0,0 +1,71 @@
+package org.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Hooks RequestProfiler into JDBC and JSON writing; cookingbook.profiler.enabled=false leaves both untouched.
+@Configuration
+@ConditionalOnProperty(name = "cookingbook.profiler.enabled", matchIfMissing = true)
+public class ProfilerConfig implements WebMvcConfigurer {
+
+    // static: post processors are created before the other beans. Only the bean the application
+    // uses is wrapped, not the pools behind ReadReplicaConfig's routing proxy, so nothing counts twice.
+    @Bean
+    static BeanPostProcessor profilingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                        && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // REST responses: time spent writing the JSON body counts as serialization
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converters.get(i);
+                converters.set(i, new ProfilingJacksonConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+
+    static final class ProfilingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        ProfilingJacksonConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            RequestProfiler.Profile profile = RequestProfiler.current();
+            if (profile == null) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                profile.serialization(System.nanoTime() - start);
+            }
+        }
+    }
+}
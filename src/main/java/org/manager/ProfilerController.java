@@ -0,0 +1,35 @@
+package org.manager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// JSON form of the admin/profiler view, for the api profile which has no Vaadin
+@RestController
+@RequestMapping("/api/admin/profiler")
+public class ProfilerController {
+
+    private final RequestProfiler profiler;
+
+    @Autowired
+    public ProfilerController(RequestProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    // GET the buffered slow / N+1 requests, slowest first
+    @GetMapping
+    public List<RequestProfiler.ProfiledRequest> getSlowest() {
+        return profiler.slowest();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        profiler.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
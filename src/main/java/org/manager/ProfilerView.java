@@ -0,0 +1,88 @@
+package org.manager;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.router.RouterLink;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Slowest recent requests from RequestProfiler; select a row for its repeated statement shapes
+@Route("admin/profiler")
+public class ProfilerView extends VerticalLayout {
+
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final RequestProfiler profiler;
+    private final Grid<RequestProfiler.ProfiledRequest> grid = new Grid<>();
+    private final Grid<RequestProfiler.RepeatedStatement> repeatedGrid = new Grid<>();
+
+    public ProfilerView(RequestProfiler profiler) {
+        this.profiler = profiler;
+
+        setSizeFull();
+        configureGrids();
+
+        Button refreshButton = new Button("Refresh", event -> refresh());
+        Button clearButton = new Button("Clear", event -> {
+            profiler.clear();
+            refresh();
+        });
+
+        add(
+            new RouterLink("← Back to List", RecipeListView.class),
+            new H2("Request profiler"),
+            new Span("Requests above the slow threshold or with repeated statements (possible N+1), slowest first."),
+            new HorizontalLayout(refreshButton, clearButton),
+            grid,
+            repeatedGrid
+        );
+
+        refresh();
+    }
+
+    private void configureGrids() {
+        grid.setSizeFull();
+        grid.addColumn(r -> TIME.format(r.startedAt())).setHeader("Time").setAutoWidth(true);
+        grid.addColumn(RequestProfiler.ProfiledRequest::request).setHeader("Request").setFlexGrow(1);
+        grid.addColumn(RequestProfiler.ProfiledRequest::status).setHeader("Status").setAutoWidth(true);
+        grid.addColumn(r -> millis(r.millis())).setHeader("Total ms").setAutoWidth(true);
+        grid.addColumn(RequestProfiler.ProfiledRequest::statements).setHeader("Statements").setAutoWidth(true);
+        grid.addColumn(RequestProfiler.ProfiledRequest::rows).setHeader("Rows").setAutoWidth(true);
+        grid.addColumn(r -> millis(r.jdbcMillis())).setHeader("JDBC ms").setAutoWidth(true);
+        grid.addColumn(r -> millis(r.serializationMillis())).setHeader("JSON ms").setAutoWidth(true);
+        grid.addColumn(r -> r.repeatedStatements().stream()
+                        .map(s -> s.count() + "×")
+                        .collect(Collectors.joining(", ")))
+                .setHeader("N+1 suspects").setAutoWidth(true);
+
+        grid.asSingleSelect().addValueChangeListener(event -> {
+            RequestProfiler.ProfiledRequest selected = event.getValue();
+            List<RequestProfiler.RepeatedStatement> repeated =
+                    selected != null ? selected.repeatedStatements() : List.of();
+            repeatedGrid.setItems(repeated);
+        });
+
+        repeatedGrid.setHeight("14em");
+        repeatedGrid.addColumn(RequestProfiler.RepeatedStatement::count).setHeader("Count").setAutoWidth(true);
+        repeatedGrid.addColumn(RequestProfiler.RepeatedStatement::shape).setHeader("Statement shape").setFlexGrow(1);
+    }
+
+    private void refresh() {
+        grid.setItems(profiler.slowest());
+        repeatedGrid.setItems(List.of());
+    }
+
+    private static String millis(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+}
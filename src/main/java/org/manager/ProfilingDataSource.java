@@ -0,0 +1,134 @@
+package org.manager;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Wraps the application DataSource for RequestProfiler (see ProfilerConfig). Connections taken
+// inside a profiled request are JDK proxies whose statements time every execute* call and record
+// its SQL, and whose result sets count next() rows. Connections taken anywhere else (startup,
+// scheduled jobs, index rebuilds) are returned as they are.
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    public ProfilingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return profiled(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return profiled(super.getConnection(username, password));
+    }
+
+    private static Connection profiled(Connection connection) {
+        if (RequestProfiler.current() == null) return connection;
+        return proxy(Connection.class, new Handler(connection) {
+            @Override
+            Object result(Method method, Object[] args, Object result) {
+                // the return type picks the proxy interface: Statement, PreparedStatement or CallableStatement
+                if (result instanceof Statement) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql));
+                }
+                return result;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    // Delegates everything to the target, with result() to wrap what a call returns
+    private abstract static class Handler implements InvocationHandler {
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "Profiled " + target;
+                default -> result(method, args, call(method, args));
+            };
+        }
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        abstract Object result(Method method, Object[] args, Object result);
+    }
+
+    private static final class StatementHandler extends Handler {
+        private final String preparedSql;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            super(statement);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object call(Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) return super.call(method, args);
+            long start = System.nanoTime();
+            try {
+                return super.call(method, args);
+            } finally {
+                RequestProfiler.Profile profile = RequestProfiler.current();
+                if (profile != null) {
+                    // plain Statement.execute(sql) carries the SQL as argument
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    profile.statement(sql, System.nanoTime() - start);
+                }
+            }
+        }
+
+        @Override
+        Object result(Method method, Object[] args, Object result) {
+            if (result instanceof ResultSet resultSet && !method.getName().equals("getGeneratedKeys")) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+
+        ResultSetHandler(ResultSet resultSet) {
+            super(resultSet);
+        }
+
+        @Override
+        Object result(Method method, Object[] args, Object result) {
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                RequestProfiler.Profile profile = RequestProfiler.current();
+                if (profile != null) {
+                    profile.row();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.manager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Only with cookingbook.datasource.replica.url set. readOnly transactions (the RecipeService reads,
+// ChangeFeed pages) mark their connection read-only, and the proxy hands those to the replica;
+// everything else, including schema updates, goes to spring.datasource. The proxy fetches the
+// physical connection at the first statement, after the transaction has set the flag.
+// The replica may lag: a read right after a write can miss it.
+@Configuration
+@ConditionalOnProperty("cookingbook.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    // not autowire candidates themselves, only beans so that the pools are closed on shutdown
+    @Bean(defaultCandidate = false)
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(defaultCandidate = false)
+    HikariDataSource replicaDataSource(
+            @Value("${cookingbook.datasource.replica.url}") String url,
+            @Value("${cookingbook.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${cookingbook.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        log.info("Read-only transactions are routed to {}", url);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replica);
+        return routing;
+    }
+}
@@ -1,6 +1,7 @@
 package org.manager;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.HashSet;
 import java.util.List;
@@ -8,12 +9,18 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
+@DynamicUpdate // PATCH only writes the columns that changed
 public class Recipe {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // optimistic locking; the default fills rows created before this column existed
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
+
     private String name;
 
     @Column(length = 2000)
@@ -24,6 +31,11 @@ public class Recipe {
 
     private int servings;
 
+    // one bit per IngredientCategory used by the ingredients, for Diet filters in SQL;
+    // kept current by RecipeService, backfilled by SchemaMigrations
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private long categoryMask;
+
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private Set<Ingredient> ingredients = new HashSet<>();
 
@@ -70,11 +82,19 @@ public class Recipe {
     }
 
     public Long getId() { return id; }
+    public long getVersion() { return version; }
+    void setVersion(long version) { this.version = version; }
     public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
     public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
     public Difficulty getDifficulty() { return difficulty; }
+    public void setDifficulty(Difficulty difficulty) { this.difficulty = difficulty; }
     public int getServings() { return servings; }
     public void setServings(int servings) { this.servings = servings; }
+    public long getCategoryMask() { return categoryMask; }
+
+    void refreshCategoryMask() { this.categoryMask = Diet.maskOf(ingredients); }
 
     public List<Ingredient> getIngredients() {
         return ingredients.stream()
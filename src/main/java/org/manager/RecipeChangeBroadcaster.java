@@ -0,0 +1,74 @@
+package org.manager;
+
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// In-process change feed for open views. Events are forwarded only after the transaction committed,
+// on a separate thread so that writers never wait for UI updates.
+@Component
+public class RecipeChangeBroadcaster {
+
+    // bigger change batches (e.g. bulk deletes of a filter) are cheaper as one reload per view
+    static final int MAX_INCREMENTAL_CHANGES = 50;
+
+    // recipes: the changed rows as committed, loaded once for all views and shared by them, so they
+    // must not be modified. Empty for deletions and for batches above MAX_INCREMENTAL_CHANGES.
+    public record RecipeChange(RecipeChangedEvent event, Map<Long, Recipe> recipes) {
+
+        public boolean incremental() {
+            return event.recipeIds().size() <= MAX_INCREMENTAL_CHANGES;
+        }
+    }
+
+    private final RecipeService recipeService;
+    private final List<Consumer<RecipeChange>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "recipe-change-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RecipeChangeBroadcaster(RecipeService recipeService) {
+        this.recipeService = recipeService;
+    }
+
+    public Registration register(Consumer<RecipeChange> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> {
+            RecipeChange change = new RecipeChange(event, load(event));
+            for (Consumer<RecipeChange> listener : listeners) {
+                listener.accept(change);
+            }
+        });
+    }
+
+    private Map<Long, Recipe> load(RecipeChangedEvent event) {
+        if (event.type() == RecipeChangedEvent.ChangeType.DELETED
+                || event.recipeIds().size() > MAX_INCREMENTAL_CHANGES) {
+            return Map.of();
+        }
+        return Map.copyOf(recipeService.getRecipesById(event.recipeIds()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package org.manager;
+
+import java.util.List;
+
+// Published by RecipeService inside the writing transaction
+public record RecipeChangedEvent(ChangeType type, List<Long> recipeIds) {
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+
+    public static RecipeChangedEvent of(ChangeType type, Long recipeId) {
+        return new RecipeChangedEvent(type, List.of(recipeId));
+    }
+}
@@ -1,6 +1,8 @@
 package org.manager;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,67 +14,141 @@ import java.util.Map;
 @RequestMapping("/api/recipes")
 public class RecipeController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final RecipeService recipeService;
+    private final SuggestionIndex suggestionIndex;
+    private final SimilarityIndex similarityIndex;
+    private final CatalogColumns catalogColumns;
+    private final KitchenScheduler kitchenScheduler;
+    private final CostingEngine costingEngine;
+    private final CoalescingRecipeReads coalescingReads;
 
     @Autowired
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, SuggestionIndex suggestionIndex,
+                            SimilarityIndex similarityIndex, CatalogColumns catalogColumns,
+                            KitchenScheduler kitchenScheduler, CostingEngine costingEngine,
+                            CoalescingRecipeReads coalescingReads) {
         this.recipeService = recipeService;
+        this.suggestionIndex = suggestionIndex;
+        this.similarityIndex = similarityIndex;
+        this.catalogColumns = catalogColumns;
+        this.kitchenScheduler = kitchenScheduler;
+        this.costingEngine = costingEngine;
+        this.coalescingReads = coalescingReads;
     }
 
-    // GET all recipes
+    // GET all recipes, optionally narrowed with ?fields=name,difficulty&expand=ingredients,steps,nutrition
+    // and filtered with ?diet=VEGAN
     @GetMapping
-    public List<Recipe> getAllRecipes() {
-        return recipeService.getAllRecipes();
+    public List<RecipeDto> getAllRecipes(@RequestParam(required = false) String fields,
+                                         @RequestParam(required = false) String expand,
+                                         @RequestParam(required = false) Diet diet) {
+        return recipeService.getAllRecipeDtos(RecipeSelection.parse(fields, expand), diet);
     }
 
     // GET recipe by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Recipe> getRecipeById(@PathVariable Long id) {
-        return recipeService.getRecipeById(id)
+    public ResponseEntity<RecipeDto> getRecipeById(@PathVariable Long id,
+                                                   @RequestParam(required = false) String fields,
+                                                   @RequestParam(required = false) String expand) {
+        return coalescingReads.getRecipeDtoById(id, RecipeSelection.parse(fields, expand))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // POST create new recipe
     @PostMapping
-    public Recipe createRecipe(@RequestBody Recipe recipe) {
-        return recipeService.saveRecipe(recipe);
+    public RecipeDto createRecipe(@RequestBody RecipeRequest request) {
+        return RecipeDto.from(recipeService.saveRecipe(request.toEntity()));
     }
 
-    // PUT update existing recipe
+    // PUT replace existing recipe (diffed against the stored rows); omitted nutrition is removed
     @PutMapping("/{id}")
-    public ResponseEntity<Recipe> updateRecipe(@PathVariable Long id, @RequestBody Recipe recipe) {
-        return recipeService.getRecipeById(id)
-                .map(existing -> ResponseEntity.ok(recipeService.saveRecipe(recipe)))
+    public ResponseEntity<RecipeDto> updateRecipe(@PathVariable Long id, @RequestBody RecipeRequest request) {
+        return recipeService.replaceRecipe(id, request)
+                .map(recipe -> ResponseEntity.ok(RecipeDto.from(recipe)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // PATCH partially update existing recipe
+    @PatchMapping("/{id}")
+    public ResponseEntity<RecipeDto> patchRecipe(@PathVariable Long id, @RequestBody RecipePatch patch) {
+        return recipeService.updateRecipe(id, patch)
+                .map(recipe -> ResponseEntity.ok(RecipeDto.from(recipe)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // DELETE recipe
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRecipe(@PathVariable Long id) {
-        if (recipeService.getRecipeById(id).isPresent()) {
-            recipeService.deleteRecipe(id);
+        if (recipeService.deleteRecipe(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
 
+    // POST bulk delete by {"ids": [...]} or by {"difficulty": ..., "nameContains": ...}
+    @PostMapping("/bulk-delete")
+    public Map<String, Integer> deleteRecipes(@RequestBody BulkDeleteRequest request) {
+        Map<String, Integer> response = new HashMap<>();
+        response.put("deleted", recipeService.deleteRecipes(request));
+        return response;
+    }
+
     // GET search recipes by name
     @GetMapping("/search")
-    public List<Recipe> searchRecipes(@RequestParam String name) {
-        return recipeService.searchRecipesByName(name);
+    public List<RecipeDto> searchRecipes(@RequestParam String name,
+                                         @RequestParam(required = false) String fields,
+                                         @RequestParam(required = false) String expand,
+                                         @RequestParam(required = false) Diet diet) {
+        return coalescingReads.searchRecipeDtosByName(name, RecipeSelection.parse(fields, expand), diet);
+    }
+
+    // GET typeahead suggestions (recipe and ingredient names), most used first
+    @GetMapping("/suggest")
+    public List<SuggestionIndex.Suggestion> suggest(@RequestParam String q,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return suggestionIndex.suggest(q, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    // GET recipes sharing the most ingredients with this one, best match first
+    @GetMapping("/{id}/similar")
+    public List<SimilarityIndex.SimilarRecipe> similar(@PathVariable Long id,
+                                                       @RequestParam(defaultValue = "5") int limit) {
+        return similarityIndex.findSimilar(id, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    // GET catalog-wide aggregates, optionally for one difficulty and/or recipes using a category
+    @GetMapping("/analytics")
+    public CatalogColumns.CatalogStats analytics(@RequestParam(required = false) Difficulty difficulty,
+                                                 @RequestParam(required = false) IngredientCategory category) {
+        return catalogColumns.stats(difficulty, category);
+    }
+
+    // POST derive nutrition for the whole catalog from the nutrient table
+    @PostMapping("/nutrition/recompute")
+    public Map<String, Integer> recomputeNutrition() {
+        Map<String, Integer> response = new HashMap<>();
+        response.put("updated", recipeService.recomputeNutrition());
+        return response;
+    }
+
+    // GET cost of the recipe and per serving from the ingredient prices
+    @GetMapping("/{id}/cost")
+    public ResponseEntity<CostingEngine.RecipeCost> getCost(@PathVariable Long id) {
+        return costingEngine.costOf(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // POST calculate portions (Business Logic 1)
     @PostMapping("/{id}/calculate-portions")
-    public ResponseEntity<Recipe> calculatePortions(
+    public ResponseEntity<RecipeDto> calculatePortions(
             @PathVariable Long id,
             @RequestParam int servings) {
-        return recipeService.getRecipeById(id)
-                .map(recipe -> {
-                    recipeService.calculatePortions(recipe, servings);
-                    return ResponseEntity.ok(recipe);
-                })
+        return recipeService.calculatePortions(id, servings)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -99,4 +175,31 @@ public class RecipeController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    // POST plan a service window, e.g.
+    // {"recipeIds": [1, 2, 2], "stations": {"PREP": 2, "STOVE": 4, "OVEN": 1}, "cooks": 3}
+    @PostMapping("/schedule")
+    public KitchenScheduler.KitchenSchedule schedule(@RequestBody ScheduleRequest request) {
+        if (request.recipeIds() == null || request.recipeIds().isEmpty()) {
+            throw new IllegalArgumentException("recipeIds must not be empty");
+        }
+        return kitchenScheduler.schedule(recipeService.getRecipesInOrder(request.recipeIds()),
+                request.stations(), request.cooks());
+    }
+
+    // Stale version in a PATCH body or a concurrent write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(OptimisticLockingFailureException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Recipe was modified concurrently, reload and retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    // Invalid quantities, durations, servings or unknown fields/expansions
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
 }
\ No newline at end of file
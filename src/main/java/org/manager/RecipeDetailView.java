@@ -15,24 +15,51 @@ import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.router.BeforeEvent;
 import com.vaadin.flow.router.HasUrlParameter;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.router.RouterLink;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Route("recipe")
 public class RecipeDetailView extends VerticalLayout implements HasUrlParameter<Long> {
 
+    private static final int SIMILAR_RECIPES = 5;
+
     private final RecipeService recipeService;
+    private final SimilarityIndex similarityIndex;
+    private final CostingEngine costingEngine;
     private Recipe currentRecipe;
 
+    // The component tree is built once; interactions only update the values that changed,
+    // so e.g. a portion change sends a few text updates instead of a whole new tree.
     private final H2 title = new H2();
     private final Paragraph description = new Paragraph();
     private final VerticalLayout detailsLayout = new VerticalLayout();
+    private final Span difficultySpan = new Span();
+    private final Span servingsSpan = new Span();
+    private final Span costSpan = new Span();
     private final VerticalLayout ingredientsLayout = new VerticalLayout();
+    private final H3 ingredientsTitle = new H3();
+    private final Map<Long, Span> ingredientSpans = new HashMap<>();
     private final VerticalLayout stepsLayout = new VerticalLayout();
     private final VerticalLayout nutritionLayout = new VerticalLayout();
+    private final VerticalLayout similarLayout = new VerticalLayout();
+
+    // what is currently rendered, to detect structural changes
+    private List<Long> renderedIngredientIds = List.of();
+    private List<InstructionStep> renderedSteps = List.of();
+    private NutritionalInfo renderedNutrition;
+    private List<SimilarityIndex.SimilarRecipe> renderedSimilar = List.of();
 
-    public RecipeDetailView(RecipeService recipeService) {
+    public RecipeDetailView(RecipeService recipeService, SimilarityIndex similarityIndex,
+                            CostingEngine costingEngine) {
         this.recipeService = recipeService;
+        this.similarityIndex = similarityIndex;
+        this.costingEngine = costingEngine;
 
         setSizeFull();
         setPadding(true);
@@ -40,7 +67,11 @@ public class RecipeDetailView extends VerticalLayout implements HasUrlParameter<
         Button backButton = new Button("← Back to List");
         backButton.addClickListener(e -> getUI().ifPresent(ui -> ui.navigate(RecipeListView.class)));
 
-        add(backButton, title, description);
+        detailsLayout.add(new H3("Details"), difficultySpan, servingsSpan, costSpan);
+        ingredientsLayout.add(ingredientsTitle);
+
+        add(backButton, title, description, createBusinessLogicButtons(), detailsLayout,
+            ingredientsLayout, stepsLayout, nutritionLayout, similarLayout);
     }
 
     @Override
@@ -57,59 +88,113 @@ public class RecipeDetailView extends VerticalLayout implements HasUrlParameter<
     }
 
     private void displayRecipe() {
-        removeAll();
-
-        Button backButton = new Button("← Back to List");
-        backButton.addClickListener(e -> getUI().ifPresent(ui -> ui.navigate(RecipeListView.class)));
-
+        // setText is a no-op on the client when the value did not change
         title.setText(currentRecipe.getName());
         description.setText(currentRecipe.getDescription());
+        difficultySpan.setText("Difficulty: " + currentRecipe.getDifficulty());
+        servingsSpan.setText("Servings: " + currentRecipe.getServings());
+        costSpan.setText(costingEngine.costOf(currentRecipe.getId())
+                .map(cost -> "Cost: " + cost.total() + " (" + cost.perServing() + " per serving)"
+                        + (cost.unpricedIngredients() > 0 ? ", " + cost.unpricedIngredients() + " unpriced" : ""))
+                .orElse("Cost: not calculated yet"));
+
+        displayIngredients();
+        displaySteps();
+        displayNutrition();
+        displaySimilar();
+    }
 
-        // Details section
-        detailsLayout.removeAll();
-        detailsLayout.add(new H3("Details"));
-        detailsLayout.add(new Span("Difficulty: " + currentRecipe.getDifficulty()));
-        detailsLayout.add(new Span("Servings: " + currentRecipe.getServings()));
-
-        // Business Logic Buttons
-        HorizontalLayout businessLogicButtons = createBusinessLogicButtons();
+    private void displayIngredients() {
+        List<Ingredient> ingredients = currentRecipe.getIngredients();
+        List<Long> ids = ingredients.stream().map(Ingredient::getId).toList();
+
+        if (!ids.equals(renderedIngredientIds)) {
+            ingredientSpans.values().forEach(ingredientsLayout::remove);
+            ingredientSpans.clear();
+            for (Ingredient ing : ingredients) {
+                Span ingSpan = new Span();
+                ingredientSpans.put(ing.getId(), ingSpan);
+                ingredientsLayout.add(ingSpan);
+            }
+            ingredientsTitle.setText("Ingredients (" + ingredients.size() + ")");
+            renderedIngredientIds = ids;
+        }
 
-        // Ingredients section
-        ingredientsLayout.removeAll();
-        ingredientsLayout.add(new H3("Ingredients (" + currentRecipe.getIngredients().size() + ")"));
-        for (Ingredient ing : currentRecipe.getIngredients()) {
-            Span ingSpan = new Span(ing.getQuantity() + " " + ing.getUnit() + " " + ing.getName() +
+        for (Ingredient ing : ingredients) {
+            ingredientSpans.get(ing.getId()).setText(ing.getQuantity() + " " + ing.getUnit() + " " + ing.getName() +
                     " (" + ing.getCategory() + ")");
-            ingredientsLayout.add(ingSpan);
+        }
+    }
+
+    private void displaySteps() {
+        List<InstructionStep> steps = currentRecipe.getSteps();
+        if (sameSteps(steps, renderedSteps)) {
+            return;
         }
 
-        // Steps section
         stepsLayout.removeAll();
         stepsLayout.add(new H3("Cooking Instructions"));
-        for (InstructionStep step : currentRecipe.getSteps()) {
+        for (InstructionStep step : steps) {
             VerticalLayout stepLayout = new VerticalLayout();
             stepLayout.setPadding(false);
             H3 stepTitle = new H3("Step " + step.getStepNumber());
             Span stepDesc = new Span(step.getDescription());
-            Span stepDuration = new Span("Duration: " + step.getDurationMinutes() + " minutes");
+            Span stepDuration = new Span("Duration: " + step.getDurationMinutes() + " minutes · "
+                    + step.getStationType());
             stepDuration.getStyle().set("color", "var(--lumo-secondary-text-color)");
             stepLayout.add(stepTitle, stepDesc, stepDuration);
             stepsLayout.add(stepLayout);
         }
+        renderedSteps = steps;
+    }
+
+    private static boolean sameSteps(List<InstructionStep> a, List<InstructionStep> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            InstructionStep x = a.get(i);
+            InstructionStep y = b.get(i);
+            if (!Objects.equals(x.getId(), y.getId()) || x.getStepNumber() != y.getStepNumber()
+                    || x.getDurationMinutes() != y.getDurationMinutes()
+                    || x.getStationType() != y.getStationType()
+                    || !Objects.equals(x.getDescription(), y.getDescription())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void displayNutrition() {
+        NutritionalInfo info = currentRecipe.getNutritionalInfo();
+        if (Objects.equals(NutritionDto.from(info), NutritionDto.from(renderedNutrition))) {
+            return;
+        }
 
-        // Nutrition section
         nutritionLayout.removeAll();
-        if (currentRecipe.getNutritionalInfo() != null) {
+        if (info != null) {
             nutritionLayout.add(new H3("Nutritional Information (per serving)"));
-            NutritionalInfo info = currentRecipe.getNutritionalInfo();
             nutritionLayout.add(new Span("Calories: " + info.getCalories() + " kcal"));
             nutritionLayout.add(new Span("Protein: " + info.getProtein() + " g"));
             nutritionLayout.add(new Span("Fat: " + info.getFat() + " g"));
             nutritionLayout.add(new Span("Carbohydrates: " + info.getCarbohydrates() + " g"));
         }
+        renderedNutrition = info;
+    }
 
-        add(backButton, title, description, businessLogicButtons, detailsLayout,
-            ingredientsLayout, stepsLayout, nutritionLayout);
+    private void displaySimilar() {
+        List<SimilarityIndex.SimilarRecipe> similar = similarityIndex.findSimilar(currentRecipe.getId(), SIMILAR_RECIPES);
+        if (similar.equals(renderedSimilar)) {
+            return;
+        }
+
+        similarLayout.removeAll();
+        if (!similar.isEmpty()) {
+            similarLayout.add(new H3("Similar Recipes"));
+            for (SimilarityIndex.SimilarRecipe s : similar) {
+                similarLayout.add(new RouterLink(s.name() + " (" + Math.round(s.similarity() * 100) + "% match)",
+                        RecipeDetailView.class, s.id()));
+            }
+        }
+        renderedSimilar = similar;
     }
 
     private HorizontalLayout createBusinessLogicButtons() {
@@ -142,7 +227,17 @@ public class RecipeDetailView extends VerticalLayout implements HasUrlParameter<
 
         Button calculateButton = new Button("Calculate", event -> {
             int newServings = servingsField.getValue();
-            recipeService.calculatePortions(currentRecipe, newServings);
+            try {
+                recipeService.calculatePortions(currentRecipe, newServings);
+            } catch (OptimisticLockingFailureException ex) {
+                dialog.close();
+                recipeService.getRecipeById(currentRecipe.getId()).ifPresent(r -> currentRecipe = r);
+                displayRecipe();
+                Notification.show("Recipe was changed by someone else, please try again.",
+                        4000, Notification.Position.MIDDLE)
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                return;
+            }
             dialog.close();
             displayRecipe();
             Notification.show("Portions adjusted to " + newServings + " servings!",
@@ -0,0 +1,34 @@
+package org.manager;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// Response body of the REST API. Built from query projections (see RecipeQueryRepository),
+// so serialization never touches entities or the persistence context.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecipeDto(Long id,
+                        Long version,
+                        String name,
+                        String description,
+                        Difficulty difficulty,
+                        Integer servings,
+                        List<IngredientDto> ingredients,
+                        List<StepDto> steps,
+                        NutritionDto nutrition) {
+
+    // Only for write responses, where the aggregate is already fully in memory
+    public static RecipeDto from(Recipe recipe) {
+        return new RecipeDto(
+                recipe.getId(),
+                recipe.getVersion(),
+                recipe.getName(),
+                recipe.getDescription(),
+                recipe.getDifficulty(),
+                recipe.getServings(),
+                recipe.getIngredients().stream().map(IngredientDto::from).toList(),
+                recipe.getSteps().stream().map(StepDto::from).toList(),
+                NutritionDto.from(recipe.getNutritionalInfo())
+        );
+    }
+}
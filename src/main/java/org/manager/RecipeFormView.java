@@ -79,6 +79,8 @@ public class RecipeFormView extends VerticalLayout {
 
         // Nutritional info section
         H3 nutritionTitle = new H3("Nutritional Information (Optional)");
+        Span nutritionHint = new Span("Leave empty to calculate it from the ingredients (when they are all in the nutrient table).");
+        nutritionHint.getStyle().set("color", "var(--lumo-secondary-text-color)");
         FormLayout nutritionForm = new FormLayout();
         configureNutritionForm(nutritionForm);
 
@@ -95,7 +97,7 @@ public class RecipeFormView extends VerticalLayout {
         add(title, basicInfoForm,
             ingredientsTitle, addIngredientBtn, ingredientsContainer,
             stepsTitle, addStepBtn, stepsContainer,
-            nutritionTitle, nutritionForm,
+            nutritionTitle, nutritionHint, nutritionForm,
             buttonLayout);
     }
 
@@ -229,7 +231,13 @@ public class RecipeFormView extends VerticalLayout {
             recipe.setNutritionalInfo(nutritionalInfo);
         }
 
-        recipeService.saveRecipe(recipe);
+        try {
+            recipeService.saveRecipe(recipe);
+        } catch (IllegalArgumentException e) {
+            Notification.show(e.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return;
+        }
 
         Notification.show("Recipe saved successfully!", 3000, Notification.Position.BOTTOM_START)
                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
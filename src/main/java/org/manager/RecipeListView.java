@@ -1,23 +1,41 @@
 package org.manager;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.dataview.GridListDataView;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
-import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouterLink;
+import com.vaadin.flow.shared.Registration;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Route("")
 public class RecipeListView extends VerticalLayout {
 
     private final RecipeService recipeService;
+    private final RecipeChangeBroadcaster changeBroadcaster;
+    private final SuggestionIndex suggestionIndex;
     private final Grid<Recipe> grid = new Grid<>(Recipe.class, false);
-    private final TextField searchField = new TextField("Search");
+    private final ComboBox<SuggestionIndex.Suggestion> searchField = new ComboBox<>("Search");
+    private final ComboBox<Diet> dietFilter = new ComboBox<>("Diet");
+    private GridListDataView<Recipe> dataView;
+    private Registration changeRegistration;
 
-    public RecipeListView(RecipeService recipeService) {
+    public RecipeListView(RecipeService recipeService, RecipeChangeBroadcaster changeBroadcaster,
+                          SuggestionIndex suggestionIndex) {
         this.recipeService = recipeService;
+        this.changeBroadcaster = changeBroadcaster;
+        this.suggestionIndex = suggestionIndex;
 
         setSizeFull();
         configureGrid();
@@ -50,10 +68,23 @@ public class RecipeListView extends VerticalLayout {
     }
 
     private HorizontalLayout getToolbar() {
-        searchField.setPlaceholder("Search by name...");
+        // suggestions come from the in-memory trie, the database is only queried on selection
+        searchField.setPlaceholder("Recipe or ingredient...");
         searchField.setClearButtonVisible(true);
+        searchField.setItems((filter, offset, limit) ->
+                suggestionIndex.suggest(filter, offset + limit).stream().skip(offset));
+        searchField.setItemLabelGenerator(s -> s.type() == SuggestionIndex.Suggestion.Type.INGREDIENT
+                ? s.text() + " (ingredient)" : s.text());
+        searchField.setAllowCustomValue(true);
+        searchField.addCustomValueSetListener(e -> searchField.setValue(
+                new SuggestionIndex.Suggestion(e.getDetail(), SuggestionIndex.Suggestion.Type.RECIPE, 0)));
         searchField.addValueChangeListener(e -> updateList());
 
+        dietFilter.setItems(Diet.values());
+        dietFilter.setPlaceholder("Any");
+        dietFilter.setClearButtonVisible(true);
+        dietFilter.addValueChangeListener(e -> updateList());
+
         Button addButton = new Button("Add Recipe");
         addButton.addClickListener(e -> {
             getUI().ifPresent(ui -> ui.navigate(RecipeFormView.class));
@@ -62,17 +93,87 @@ public class RecipeListView extends VerticalLayout {
         Button refreshButton = new Button("Refresh");
         refreshButton.addClickListener(e -> updateList());
 
-        HorizontalLayout toolbar = new HorizontalLayout(searchField, addButton, refreshButton);
+        HorizontalLayout toolbar = new HorizontalLayout(searchField, dietFilter, addButton, refreshButton);
         toolbar.setDefaultVerticalComponentAlignment(Alignment.BASELINE);
         return toolbar;
     }
 
+    // the diet alone is filtered in SQL; combined with a search it narrows the (small) result
     private void updateList() {
-        String searchTerm = searchField.getValue();
-        if (searchTerm == null || searchTerm.isEmpty()) {
-            grid.setItems(recipeService.getAllRecipes());
-        } else {
-            grid.setItems(recipeService.searchRecipesByName(searchTerm));
+        SuggestionIndex.Suggestion search = searchField.getValue();
+        Diet diet = dietFilter.getValue();
+        if (search == null || search.text().isEmpty()) {
+            dataView = grid.setItems(diet != null ? recipeService.findByDiet(diet) : recipeService.getAllRecipes());
+            return;
+        }
+
+        List<Recipe> recipes = search.type() == SuggestionIndex.Suggestion.Type.INGREDIENT
+                ? recipeService.searchRecipesByIngredient(search.text())
+                : recipeService.searchRecipesByName(search.text());
+        if (diet != null) {
+            // mutable, the data view adds and removes rows on live updates
+            recipes = recipes.stream().filter(r -> diet.matches(r.getCategoryMask())).collect(Collectors.toList());
+        }
+        dataView = grid.setItems(recipes);
+    }
+
+    // Live updates: only the changed rows are sent to the browser, via server push
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        UI ui = attachEvent.getUI();
+        changeRegistration = changeBroadcaster.register(change -> ui.access(() -> applyChange(change)));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (changeRegistration != null) {
+            changeRegistration.remove();
+            changeRegistration = null;
+        }
+    }
+
+    // the rows come with the change, loaded once by the broadcaster for all open views
+    private void applyChange(RecipeChangeBroadcaster.RecipeChange change) {
+        if (!change.incremental()) {
+            updateList();
+            return;
+        }
+        RecipeChangedEvent event = change.event();
+        for (Long id : event.recipeIds()) {
+            Optional<Recipe> shown = findShown(id);
+            if (event.type() == RecipeChangedEvent.ChangeType.DELETED) {
+                shown.ifPresent(dataView::removeItem);
+                continue;
+            }
+
+            Optional<Recipe> fresh = Optional.ofNullable(change.recipes().get(id)).filter(this::matchesSearch);
+            if (fresh.isPresent() && shown.isPresent()) {
+                dataView.addItemAfter(fresh.get(), shown.get());
+                dataView.removeItem(shown.get());
+            } else if (fresh.isPresent()) {
+                dataView.addItem(fresh.get());
+            } else {
+                shown.ifPresent(dataView::removeItem); // no longer matches the search
+            }
+        }
+    }
+
+    private Optional<Recipe> findShown(Long id) {
+        return dataView.getItems().filter(r -> id.equals(r.getId())).findFirst();
+    }
+
+    private boolean matchesSearch(Recipe recipe) {
+        Diet diet = dietFilter.getValue();
+        if (diet != null && !diet.matches(recipe.getCategoryMask())) {
+            return false;
+        }
+        SuggestionIndex.Suggestion search = searchField.getValue();
+        if (search == null || search.text().isEmpty()) {
+            return true;
+        }
+        if (search.type() == SuggestionIndex.Suggestion.Type.INGREDIENT) {
+            return recipe.getIngredients().stream().anyMatch(i -> search.text().equalsIgnoreCase(i.getName()));
         }
+        return recipe.getName().toLowerCase(Locale.ROOT).contains(search.text().toLowerCase(Locale.ROOT));
     }
-}
\ No newline at end of file
+}
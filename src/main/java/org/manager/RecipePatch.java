@@ -0,0 +1,32 @@
+package org.manager;
+
+import java.util.List;
+
+// Body of PATCH /api/recipes/{id}. Null means "leave unchanged".
+// ingredients/steps, when present, are the complete new lists: entries with a known id are
+// updated in place, entries without one are inserted, stored rows missing from the list are deleted.
+// version, when present, must match the stored version or the update is rejected.
+public record RecipePatch(Long version,
+                          String name,
+                          String description,
+                          Difficulty difficulty,
+                          Integer servings,
+                          List<IngredientDto> ingredients,
+                          List<StepDto> steps,
+                          NutritionDto nutrition) {
+
+    // PUT replaces every field, missing lists mean "no rows". A missing nutrition stays null here;
+    // RecipeService.replaceRecipe removes the stored one.
+    public static RecipePatch replacing(RecipeRequest request) {
+        return new RecipePatch(
+                null,
+                request.name(),
+                request.description(),
+                request.difficulty(),
+                request.servings(),
+                request.ingredients() != null ? request.ingredients() : List.of(),
+                request.steps() != null ? request.steps() : List.of(),
+                request.nutrition()
+        );
+    }
+}
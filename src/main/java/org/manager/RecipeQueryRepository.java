@@ -0,0 +1,219 @@
+package org.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Read side of the REST API: plain column projections assembled into RecipeDto records.
+// No Recipe entity is ever materialized here, so the EAGER collections are not loaded twice
+// and Jackson never sees a Hibernate proxy or a back-reference.
+// A RecipeSelection narrows the select list and skips the child queries that were not expanded.
+@Repository
+public class RecipeQueryRepository {
+
+    // keeps IN lists at a size every database handles well
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    // same predicate as Diet.matches
+    private static final String DIET_CONDITION = "function('bitand', r.categoryMask, :forbidden) = 0";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<RecipeDto> findAll() {
+        return findAll(RecipeSelection.FULL);
+    }
+
+    public List<RecipeDto> findAll(RecipeSelection selection) {
+        return assemble(entityManager.createQuery(
+                selectClause(selection) + " from Recipe r order by r.id", Object[].class), selection);
+    }
+
+    public List<RecipeDto> findAll(RecipeSelection selection, Diet diet) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                selectClause(selection) + " from Recipe r where " + DIET_CONDITION + " order by r.id", Object[].class);
+        query.setParameter("forbidden", diet.forbiddenMask());
+        return assemble(query, selection);
+    }
+
+    public Optional<RecipeDto> findById(Long id) {
+        return findById(id, RecipeSelection.FULL);
+    }
+
+    public Optional<RecipeDto> findById(Long id, RecipeSelection selection) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                selectClause(selection) + " from Recipe r where r.id = :id", Object[].class);
+        query.setParameter("id", id);
+        return assemble(query, selection).stream().findFirst();
+    }
+
+    public List<RecipeDto> findByNameContainingIgnoreCase(String name) {
+        return findByNameContainingIgnoreCase(name, RecipeSelection.FULL);
+    }
+
+    public List<RecipeDto> findByNameContainingIgnoreCase(String name, RecipeSelection selection) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                selectClause(selection) + " from Recipe r "
+                        + "where lower(r.name) like lower(concat('%', :name, '%')) order by r.id",
+                Object[].class);
+        query.setParameter("name", name);
+        return assemble(query, selection);
+    }
+
+    public List<RecipeDto> findByNameContainingIgnoreCase(String name, RecipeSelection selection, Diet diet) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                selectClause(selection) + " from Recipe r "
+                        + "where lower(r.name) like lower(concat('%', :name, '%')) and " + DIET_CONDITION
+                        + " order by r.id",
+                Object[].class);
+        query.setParameter("name", name);
+        query.setParameter("forbidden", diet.forbiddenMask());
+        return assemble(query, selection);
+    }
+
+    // At most ID_CHUNK_SIZE ids, e.g. the recipes touched by one page of the change feed
+    public List<RecipeDto> findByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                selectClause(RecipeSelection.FULL) + " from Recipe r where r.id in :ids order by r.id",
+                Object[].class);
+        query.setParameter("ids", ids);
+        return assemble(query, RecipeSelection.FULL);
+    }
+
+    // Keyset page in id order, for walking the whole catalog without holding it in memory
+    public List<RecipeDto> findPage(Long afterId, int limit) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                selectClause(RecipeSelection.FULL) + " from Recipe r where r.id > :afterId order by r.id",
+                Object[].class);
+        query.setParameter("afterId", afterId);
+        query.setMaxResults(limit);
+        return assemble(query, RecipeSelection.FULL);
+    }
+
+    // Only whitelisted field names from RecipeSelection ever reach the query string
+    private static String selectClause(RecipeSelection selection) {
+        StringBuilder select = new StringBuilder("select r.id, r.version");
+        for (String field : RecipeSelection.SCALAR_FIELDS) {
+            if (selection.includes(field)) {
+                select.append(", r.").append(field);
+            }
+        }
+        return select.toString();
+    }
+
+    private List<RecipeDto> assemble(TypedQuery<Object[]> recipeQuery, RecipeSelection selection) {
+        List<Object[]> rows = recipeQuery.getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+
+        // child tables are only queried when expanded
+        Map<Long, List<IngredientDto>> ingredients = selection.expands(RecipeSelection.Expansion.INGREDIENTS)
+                ? findIngredients(ids) : null;
+        Map<Long, List<StepDto>> steps = selection.expands(RecipeSelection.Expansion.STEPS)
+                ? findSteps(ids) : null;
+        Map<Long, NutritionDto> nutrition = selection.expands(RecipeSelection.Expansion.NUTRITION)
+                ? findNutrition(ids) : null;
+
+        List<RecipeDto> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            Long version = (Long) row[1];
+            int column = 2;
+            String name = selection.includes("name") ? (String) row[column++] : null;
+            String description = selection.includes("description") ? (String) row[column++] : null;
+            Difficulty difficulty = selection.includes("difficulty") ? (Difficulty) row[column++] : null;
+            Integer servings = selection.includes("servings") ? (Integer) row[column] : null;
+
+            result.add(new RecipeDto(
+                    id,
+                    version,
+                    name,
+                    description,
+                    difficulty,
+                    servings,
+                    ingredients != null ? ingredients.getOrDefault(id, List.of()) : null,
+                    steps != null ? steps.getOrDefault(id, List.of()) : null,
+                    nutrition != null ? nutrition.get(id) : null
+            ));
+        }
+        return result;
+    }
+
+    private Map<Long, List<IngredientDto>> findIngredients(List<Long> recipeIds) {
+        Map<Long, List<IngredientDto>> result = new HashMap<>();
+        for (List<Long> chunk : chunks(recipeIds)) {
+            List<Object[]> rows = entityManager.createQuery(
+                            "select i.recipe.id, i.id, c.name, i.quantity, i.unit, c.category "
+                                    + "from Ingredient i join i.catalogIngredient c "
+                                    + "where i.recipe.id in :ids order by i.id", Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            for (Object[] row : rows) {
+                result.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                        .add(new IngredientDto((Long) row[1], (String) row[2], (Long) row[3],
+                                (Unit) row[4], (IngredientCategory) row[5]));
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, List<StepDto>> findSteps(List<Long> recipeIds) {
+        Map<Long, List<StepDto>> result = new HashMap<>();
+        for (List<Long> chunk : chunks(recipeIds)) {
+            List<Object[]> rows = entityManager.createQuery(
+                            "select s.recipe.id, s.id, s.stepNumber, s.description, s.durationMinutes, "
+                                    + "s.stationType, s.dependsOn "
+                                    + "from InstructionStep s where s.recipe.id in :ids order by s.stepNumber",
+                            Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            for (Object[] row : rows) {
+                result.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                        .add(new StepDto((Long) row[1], (Integer) row[2], (String) row[3], (Integer) row[4],
+                                row[5] != null ? (StationType) row[5] : StationType.PREP, (String) row[6]));
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, NutritionDto> findNutrition(List<Long> recipeIds) {
+        Map<Long, NutritionDto> result = new HashMap<>();
+        for (List<Long> chunk : chunks(recipeIds)) {
+            List<Object[]> rows = entityManager.createQuery(
+                            "select n.recipe.id, n.calories, n.protein, n.fat, n.carbohydrates "
+                                    + "from NutritionalInfo n where n.recipe.id in :ids", Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            for (Object[] row : rows) {
+                result.put((Long) row[0], new NutritionDto((Integer) row[1], (Double) row[2],
+                        (Double) row[3], (Double) row[4]));
+            }
+        }
+        return result;
+    }
+
+    // also used by the in-memory indexes that reload the rows of a change event
+    static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
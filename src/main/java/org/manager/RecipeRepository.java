@@ -1,12 +1,66 @@
 package org.manager;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByNameContainingIgnoreCase(String name);
     List<Recipe> findByDifficulty(Difficulty difficulty);
+
+    // Unique index lookup on the dictionary, then the indexed foreign key of the line items
+    @Query("select distinct i.recipe from Ingredient i where i.catalogIngredient.normalizedName = :normalizedName")
+    List<Recipe> findByIngredientName(@Param("normalizedName") String normalizedName);
+
+    // Diet filter: none of the forbidden category bits is set, see Diet
+    @Query("select r from Recipe r where function('bitand', r.categoryMask, :forbidden) = 0")
+    List<Recipe> findByForbiddenCategories(@Param("forbidden") long forbidden);
+
+    // Bumps the version on commit even when only child rows changed
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select r from Recipe r where r.id = :id")
+    Optional<Recipe> findForUpdateById(@Param("id") Long id);
+
+    @Query("select r.servings, r.version from Recipe r where r.id = :id")
+    List<Object[]> findServingsAndVersion(@Param("id") Long id);
+
+    // Portion scaling, step 1: 0 rows updated means another writer changed the recipe first
+    @Modifying(clearAutomatically = true)
+    @Query("update Recipe r set r.servings = :target, r.version = r.version + 1 " +
+            "where r.id = :id and r.version = :version and r.servings = :current")
+    int updateServingsIfVersion(@Param("id") Long id, @Param("version") long version,
+                                @Param("current") int current, @Param("target") int target);
+
+    // Portion scaling, step 2: same rounding as RecipeService.scaleQuantity, half up, minimum 1
+    @Modifying(clearAutomatically = true)
+    @Query("update Ingredient i set i.quantity = case " +
+            "when (i.quantity * :target * 2 + :current) / (:current * 2) < 1 then 1 " +
+            "else (i.quantity * :target * 2 + :current) / (:current * 2) end " +
+            "where i.recipe.id = :id")
+    int scaleIngredientQuantities(@Param("id") Long id, @Param("current") int current, @Param("target") int target);
+
+    // Single-statement deletes; ingredients, steps and nutrition go with ON DELETE CASCADE
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Recipe r where r.id = :id")
+    int deleteRecipeById(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Recipe r where r.id in :ids")
+    int deleteRecipesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.id from Recipe r where r.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.id from Recipe r where (:difficulty is null or r.difficulty = :difficulty) " +
+            "and (:name is null or lower(r.name) like lower(concat('%', :name, '%')))")
+    List<Long> findIdsByFilter(@Param("difficulty") Difficulty difficulty, @Param("name") String name);
 }
\ No newline at end of file
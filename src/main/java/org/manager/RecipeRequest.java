@@ -0,0 +1,31 @@
+package org.manager;
+
+import java.util.List;
+
+// Request body for creating a recipe; ids inside the lists are ignored
+public record RecipeRequest(String name,
+                            String description,
+                            Difficulty difficulty,
+                            int servings,
+                            List<IngredientDto> ingredients,
+                            List<StepDto> steps,
+                            NutritionDto nutrition) {
+
+    public Recipe toEntity() {
+        Recipe recipe = new Recipe(name, description, difficulty, servings);
+        if (ingredients != null) {
+            for (IngredientDto ingredient : ingredients) {
+                recipe.addIngredient(ingredient.toEntity());
+            }
+        }
+        if (steps != null) {
+            for (StepDto step : steps) {
+                recipe.addStep(step.toEntity());
+            }
+        }
+        if (nutrition != null) {
+            recipe.setNutritionalInfo(nutrition.toEntity());
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,88 @@
+package org.manager;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Which parts of a recipe a REST client asked for via ?fields= and ?expand=.
+// RecipeQueryRepository turns this into the select list and decides which child queries run at all.
+public record RecipeSelection(Set<String> fields, Set<Expansion> expansions) {
+
+    public enum Expansion { INGREDIENTS, STEPS, NUTRITION }
+
+    // id and version are always returned, these are the optional scalar columns
+    public static final List<String> SCALAR_FIELDS = List.of("name", "description", "difficulty", "servings");
+
+    public static final RecipeSelection FULL =
+            new RecipeSelection(new LinkedHashSet<>(SCALAR_FIELDS), EnumSet.allOf(Expansion.class));
+
+    // No parameters: everything (the old response shape).
+    // fields= without expand=: only the listed columns, no child rows.
+    public static RecipeSelection parse(String fields, String expand) {
+        if (fields == null && expand == null) {
+            return FULL;
+        }
+
+        Set<String> selectedFields = new LinkedHashSet<>();
+        if (fields == null) {
+            selectedFields.addAll(SCALAR_FIELDS);
+        } else {
+            for (String field : split(fields)) {
+                if (field.equals("id") || field.equals("version")) continue;
+                if (!SCALAR_FIELDS.contains(field)) {
+                    throw new IllegalArgumentException("Unknown field '" + field + "', allowed: id, version, " +
+                            String.join(", ", SCALAR_FIELDS));
+                }
+                selectedFields.add(field);
+            }
+        }
+
+        Set<Expansion> selectedExpansions = EnumSet.noneOf(Expansion.class);
+        if (expand != null) {
+            for (String name : split(expand)) {
+                try {
+                    selectedExpansions.add(Expansion.valueOf(name.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown expansion '" + name +
+                            "', allowed: ingredients, steps, nutrition");
+                }
+            }
+        }
+        return new RecipeSelection(selectedFields, selectedExpansions);
+    }
+
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+
+    public boolean expands(Expansion expansion) {
+        return expansions.contains(expansion);
+    }
+
+    // Narrows a fully populated DTO, for reads that are not answered by RecipeQueryRepository
+    public RecipeDto applyTo(RecipeDto full) {
+        if (equals(FULL)) {
+            return full;
+        }
+        return new RecipeDto(
+                full.id(),
+                full.version(),
+                includes("name") ? full.name() : null,
+                includes("description") ? full.description() : null,
+                includes("difficulty") ? full.difficulty() : null,
+                includes("servings") ? full.servings() : null,
+                expands(Expansion.INGREDIENTS) ? full.ingredients() : null,
+                expands(Expansion.STEPS) ? full.steps() : null,
+                expands(Expansion.NUTRITION) ? full.nutrition() : null);
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+}
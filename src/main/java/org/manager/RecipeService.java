@@ -1,40 +1,314 @@
 package org.manager;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+// Writes run in the class-level read-write transaction. Reads are readOnly: Spring sets the Hibernate
+// session to FlushMode.MANUAL and default read-only, so loaded entities keep no dirty-checking
+// snapshot and commit skips the flush; with a replica configured they go there (ReadReplicaConfig).
 @Service
 @Transactional
 public class RecipeService {
 
+    private static final int BULK_DELETE_CHUNK_SIZE = 1000;
+
     private final RecipeRepository recipeRepository;
+    private final RecipeQueryRepository recipeQueryRepository;
+    private final CatalogIngredientRepository catalogIngredientRepository;
+    private final CatalogSnapshot catalogSnapshot;
+    private final NutritionCalculator nutritionCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public RecipeService(RecipeRepository recipeRepository) {
+    public RecipeService(RecipeRepository recipeRepository, RecipeQueryRepository recipeQueryRepository,
+                         CatalogIngredientRepository catalogIngredientRepository, CatalogSnapshot catalogSnapshot,
+                         NutritionCalculator nutritionCalculator, ApplicationEventPublisher eventPublisher) {
         this.recipeRepository = recipeRepository;
+        this.recipeQueryRepository = recipeQueryRepository;
+        this.catalogIngredientRepository = catalogIngredientRepository;
+        this.catalogSnapshot = catalogSnapshot;
+        this.nutritionCalculator = nutritionCalculator;
+        this.eventPublisher = eventPublisher;
     }
 
     // CRUD Operations
+    @Transactional(readOnly = true)
     public List<Recipe> getAllRecipes() {
         return recipeRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Recipe> getRecipeById(Long id) {
         return recipeRepository.findById(id);
     }
 
+    // Ids without a recipe (deleted since) are left out
+    @Transactional(readOnly = true)
+    public Map<Long, Recipe> getRecipesById(Collection<Long> ids) {
+        Map<Long, Recipe> byId = new HashMap<>();
+        for (Recipe recipe : recipeRepository.findAllById(ids)) {
+            byId.put(recipe.getId(), recipe);
+        }
+        return byId;
+    }
+
+    // In the requested order, repeats included (a batch of the same dish); unknown ids are rejected
+    @Transactional(readOnly = true)
+    public List<Recipe> getRecipesInOrder(List<Long> ids) {
+        Map<Long, Recipe> byId = new HashMap<>();
+        for (Recipe recipe : recipeRepository.findAllById(ids)) {
+            byId.put(recipe.getId(), recipe);
+        }
+        List<Recipe> recipes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Recipe recipe = byId.get(id);
+            if (recipe == null) throw new IllegalArgumentException("Unknown recipe id: " + id);
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+
     public Recipe saveRecipe(Recipe recipe) {
-        return recipeRepository.save(recipe);
+        RecipeChangedEvent.ChangeType type = recipe.getId() == null
+                ? RecipeChangedEvent.ChangeType.CREATED : RecipeChangedEvent.ChangeType.UPDATED;
+        resolveCatalogIngredients(recipe);
+        recipe.refreshCategoryMask();
+        nutritionCalculator.apply(recipe);
+        Recipe saved = recipeRepository.save(recipe);
+        if (type == RecipeChangedEvent.ChangeType.UPDATED) {
+            // like findForUpdateById: a change to child rows only (an ingredient quantity,
+            // nutrition) must still move the version, CatalogSnapshot relies on it
+            entityManager.lock(saved, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+        eventPublisher.publishEvent(RecipeChangedEvent.of(type, saved.getId()));
+        return saved;
+    }
+
+    // Partial update: diffs the stored aggregate against the patch so that dirty checking
+    // only issues UPDATEs for changed rows, INSERTs for new rows and DELETEs for removed rows.
+    public Optional<Recipe> updateRecipe(Long id, RecipePatch patch) {
+        return update(id, patch, false);
+    }
+
+    // Full replace (PUT), same diffing. Omitted nutrition is not "unchanged" here: typed-in values
+    // are dropped, and derived ones are calculated again from the new ingredients where possible.
+    public Optional<Recipe> replaceRecipe(Long id, RecipeRequest request) {
+        return update(id, RecipePatch.replacing(request), true);
+    }
+
+    private Optional<Recipe> update(Long id, RecipePatch patch, boolean replace) {
+        Optional<Recipe> found = recipeRepository.findForUpdateById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Recipe recipe = found.get();
+        if (patch.version() != null && patch.version() != recipe.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Recipe.class, id);
+        }
+
+        if (patch.name() != null && !patch.name().equals(recipe.getName())) {
+            recipe.setName(patch.name());
+        }
+        if (patch.description() != null && !patch.description().equals(recipe.getDescription())) {
+            recipe.setDescription(patch.description());
+        }
+        if (patch.difficulty() != null && patch.difficulty() != recipe.getDifficulty()) {
+            recipe.setDifficulty(patch.difficulty());
+        }
+        if (patch.servings() != null && patch.servings() != recipe.getServings()) {
+            if (patch.servings() <= 0) throw new IllegalArgumentException("servings must be > 0");
+            recipe.setServings(patch.servings());
+        }
+        if (patch.ingredients() != null) {
+            mergeIngredients(recipe, patch.ingredients());
+            resolveCatalogIngredients(recipe);
+            recipe.refreshCategoryMask();
+        }
+        if (patch.steps() != null) {
+            mergeSteps(recipe, patch.steps());
+        }
+        if (patch.nutrition() != null) {
+            mergeNutrition(recipe, patch.nutrition());
+        } else if (replace && recipe.getNutritionalInfo() != null && !recipe.getNutritionalInfo().isComputed()) {
+            recipe.setNutritionalInfo(null);
+        }
+        // derived nutrition follows the ingredients and servings, typed-in values stay
+        if (patch.ingredients() != null || patch.servings() != null) {
+            nutritionCalculator.apply(recipe);
+        }
+        eventPublisher.publishEvent(RecipeChangedEvent.of(RecipeChangedEvent.ChangeType.UPDATED, id));
+        return Optional.of(recipe);
+    }
+
+    private void mergeIngredients(Recipe recipe, List<IngredientDto> incoming) {
+        Map<Long, Ingredient> stored = new HashMap<>();
+        for (Ingredient ing : recipe.getIngredients()) {
+            stored.put(ing.getId(), ing);
+        }
+        for (IngredientDto dto : incoming) {
+            Ingredient ing = dto.id() != null ? stored.remove(dto.id()) : null;
+            if (ing == null) {
+                recipe.addIngredient(dto.toEntity());
+                continue;
+            }
+            // a renamed line item points to another dictionary entry; the entry's category is canonical
+            if (dto.name() == null || !CatalogIngredient.normalize(dto.name())
+                    .equals(ing.getCatalogIngredient().getNormalizedName())) {
+                ing.setCatalogIngredient(new CatalogIngredient(dto.name(), dto.category()));
+            } else {
+                checkCategory(ing.getCatalogIngredient(), dto.category());
+            }
+            if (ing.getQuantity() != dto.quantity()) ing.setQuantity(dto.quantity());
+            if (ing.getUnit() != dto.unit()) ing.setUnit(dto.unit());
+        }
+        for (Ingredient removed : stored.values()) {
+            recipe.removeIngredient(removed);
+        }
+    }
+
+    // Replaces not yet persisted dictionary entries by the stored ones with the same normalized name,
+    // adding the names that are new. One lookup per save, however many ingredients the recipe has.
+    // Two writers adding the same new name at once: the unique constraint rejects the second.
+    // A category that contradicts the stored entry is rejected rather than silently replaced.
+    private void resolveCatalogIngredients(Recipe recipe) {
+        Map<String, CatalogIngredient> pending = new LinkedHashMap<>();
+        for (Ingredient ing : recipe.getIngredients()) {
+            CatalogIngredient entry = ing.getCatalogIngredient();
+            if (entry.getId() == null) {
+                pending.putIfAbsent(entry.getNormalizedName(), entry);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, CatalogIngredient> resolved = new HashMap<>();
+        for (CatalogIngredient stored : catalogIngredientRepository.findByNormalizedNameIn(pending.keySet())) {
+            resolved.put(stored.getNormalizedName(), stored);
+        }
+        // checked before anything is written; a new name is held to its first spelling in this recipe
+        for (Ingredient ing : recipe.getIngredients()) {
+            CatalogIngredient requested = ing.getCatalogIngredient();
+            if (requested.getId() == null) {
+                String name = requested.getNormalizedName();
+                checkCategory(resolved.getOrDefault(name, pending.get(name)), requested.getCategory());
+            }
+        }
+        for (Map.Entry<String, CatalogIngredient> entry : pending.entrySet()) {
+            resolved.computeIfAbsent(entry.getKey(), k -> catalogIngredientRepository.save(entry.getValue()));
+        }
+        for (Ingredient ing : recipe.getIngredients()) {
+            if (ing.getCatalogIngredient().getId() == null) {
+                ing.setCatalogIngredient(resolved.get(ing.getCatalogIngredient().getNormalizedName()));
+            }
+        }
+    }
+
+    // null = no opinion, the dictionary entry decides
+    private static void checkCategory(CatalogIngredient entry, IngredientCategory requested) {
+        if (requested != null && requested != entry.getCategory()) {
+            throw new IllegalArgumentException("Ingredient '" + entry.getName() + "' is "
+                    + (entry.getCategory() != null ? entry.getCategory() : "uncategorized")
+                    + " in the ingredient dictionary, not " + requested);
+        }
+    }
+
+    private void mergeSteps(Recipe recipe, List<StepDto> incoming) {
+        Map<Long, InstructionStep> stored = new HashMap<>();
+        for (InstructionStep step : recipe.getSteps()) {
+            stored.put(step.getId(), step);
+        }
+        for (StepDto dto : incoming) {
+            InstructionStep step = dto.id() != null ? stored.remove(dto.id()) : null;
+            if (step == null) {
+                recipe.addStep(dto.toEntity());
+                continue;
+            }
+            if (step.getStepNumber() != dto.stepNumber()) step.setStepNumber(dto.stepNumber());
+            if (!Objects.equals(step.getDescription(), dto.description())) step.setDescription(dto.description());
+            if (step.getDurationMinutes() != dto.durationMinutes()) step.setDurationMinutes(dto.durationMinutes());
+            StationType station = dto.stationType() != null ? dto.stationType() : StationType.PREP;
+            if (step.getStationType() != station) step.setStationType(station);
+            if (!Objects.equals(step.getDependsOn(), dto.dependsOn())) step.setDependsOn(dto.dependsOn());
+        }
+        for (InstructionStep removed : stored.values()) {
+            recipe.removeStep(removed);
+        }
+    }
+
+    private void mergeNutrition(Recipe recipe, NutritionDto dto) {
+        NutritionalInfo info = recipe.getNutritionalInfo();
+        if (info == null) {
+            recipe.setNutritionalInfo(dto.toEntity());
+        } else if (!dto.equals(NutritionDto.from(info))) {
+            info.update(dto.calories(), dto.protein(), dto.fat(), dto.carbohydrates());
+        }
     }
 
-    public void deleteRecipe(Long id) {
-        recipeRepository.deleteById(id);
+    public int recomputeNutrition() {
+        return nutritionCalculator.recomputeAll();
     }
 
+    // One DELETE statement instead of loading the aggregate and removing children row by row
+    public boolean deleteRecipe(Long id) {
+        if (recipeRepository.deleteRecipeById(id) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(RecipeChangedEvent.of(RecipeChangedEvent.ChangeType.DELETED, id));
+        return true;
+    }
+
+    // Bulk delete by id list or by filter, in one transaction
+    public int deleteRecipes(BulkDeleteRequest request) {
+        List<Long> ids;
+        if (request.ids() != null && !request.ids().isEmpty()) {
+            ids = request.ids();
+        } else if (request.difficulty() != null || (request.nameContains() != null && !request.nameContains().isEmpty())) {
+            String name = request.nameContains() != null && !request.nameContains().isEmpty() ? request.nameContains() : null;
+            ids = recipeRepository.findIdsByFilter(request.difficulty(), name);
+        } else {
+            throw new IllegalArgumentException("Bulk delete needs ids or a filter");
+        }
+
+        // the event names only recipes that existed; unknown requested ids are not reported as deleted.
+        // A recipe deleted concurrently between the select and the delete may be reported twice, which
+        // the listeners tolerate (removing an absent id is a no-op).
+        int deleted = 0;
+        List<Long> deletedIds = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(ids.subList(from, Math.min(from + BULK_DELETE_CHUNK_SIZE, ids.size())));
+            List<Long> existing = recipeRepository.findIdsByIdIn(chunk);
+            if (!existing.isEmpty()) {
+                deleted += recipeRepository.deleteRecipesByIdIn(existing);
+                deletedIds.addAll(existing);
+            }
+        }
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.ChangeType.DELETED, deletedIds));
+        }
+        return deleted;
+    }
+
+    @Transactional(readOnly = true)
     public List<Recipe> searchRecipesByName(String name) {
         if (name == null || name.isEmpty()) {
             return getAllRecipes();
@@ -42,42 +316,137 @@ public class RecipeService {
         return recipeRepository.findByNameContainingIgnoreCase(name);
     }
 
+    @Transactional(readOnly = true)
+    public List<Recipe> searchRecipesByIngredient(String ingredientName) {
+        if (ingredientName == null || ingredientName.isBlank()) {
+            return new ArrayList<>();
+        }
+        return recipeRepository.findByIngredientName(CatalogIngredient.normalize(ingredientName));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Recipe> findByDiet(Diet diet) {
+        return recipeRepository.findByForbiddenCategories(diet.forbiddenMask());
+    }
+
+    @Transactional(readOnly = true)
     public List<Recipe> findByDifficulty(Difficulty difficulty) {
         return recipeRepository.findByDifficulty(difficulty);
     }
 
+    // DTO reads for the REST API (projections, no entities); right after a restart the
+    // catalog snapshot answers them while the database warms up
+    @Transactional(readOnly = true)
+    public List<RecipeDto> getAllRecipeDtos() {
+        return getAllRecipeDtos(RecipeSelection.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeDto> getAllRecipeDtos(RecipeSelection selection) {
+        return catalogSnapshot.findAll(selection).orElseGet(() -> recipeQueryRepository.findAll(selection));
+    }
+
+    // the snapshot has no category masks, diet filters always go to the database
+    @Transactional(readOnly = true)
+    public List<RecipeDto> getAllRecipeDtos(RecipeSelection selection, Diet diet) {
+        if (diet == null) {
+            return getAllRecipeDtos(selection);
+        }
+        return recipeQueryRepository.findAll(selection, diet);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RecipeDto> getRecipeDtoById(Long id) {
+        return getRecipeDtoById(id, RecipeSelection.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RecipeDto> getRecipeDtoById(Long id, RecipeSelection selection) {
+        return catalogSnapshot.findById(id, selection).or(() -> recipeQueryRepository.findById(id, selection));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeDto> searchRecipeDtosByName(String name) {
+        return searchRecipeDtosByName(name, RecipeSelection.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeDto> searchRecipeDtosByName(String name, RecipeSelection selection) {
+        if (name == null || name.isEmpty()) {
+            return getAllRecipeDtos(selection);
+        }
+        return catalogSnapshot.findByNameContainingIgnoreCase(name, selection)
+                .orElseGet(() -> recipeQueryRepository.findByNameContainingIgnoreCase(name, selection));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeDto> searchRecipeDtosByName(String name, RecipeSelection selection, Diet diet) {
+        if (diet == null) {
+            return searchRecipeDtosByName(name, selection);
+        }
+        if (name == null || name.isEmpty()) {
+            return getAllRecipeDtos(selection, diet);
+        }
+        return recipeQueryRepository.findByNameContainingIgnoreCase(name, selection, diet);
+    }
+
     // Business Logic Method 1: Calculate Portions
+    // Two set-based UPDATEs in one transaction. The servings update is guarded by the version the
+    // caller loaded, so concurrent scaling (REST and RecipeDetailView) cannot lose updates.
     public void calculatePortions(Recipe recipe, int targetServings) {
         if (targetServings <= 0) throw new IllegalArgumentException("targetServings must be > 0");
         if (recipe.getServings() <= 0) throw new IllegalStateException("recipe.servings must be > 0");
 
-        double factor = (double) targetServings / recipe.getServings();
+        int currentServings = recipe.getServings();
+        scalePortions(recipe.getId(), recipe.getVersion(), currentServings, targetServings);
 
+        // mirror the UPDATEs on the caller's copy
         for (Ingredient ing : recipe.getIngredients()) {
-            long oldQty = ing.getQuantity();
-            long newQty = Math.round(oldQty * factor);
-            if (newQty < 1) newQty = 1; // Minimum 1 unit
-            ing.setQuantity(newQty);
+            ing.setQuantity(scaleQuantity(ing.getQuantity(), currentServings, targetServings));
         }
         recipe.setServings(targetServings);
-        recipeRepository.save(recipe);
+        recipe.setVersion(recipe.getVersion() + 1);
+    }
+
+    // Same as above for callers that only have the id (REST), without loading the aggregate
+    public Optional<RecipeDto> calculatePortions(Long id, int targetServings) {
+        if (targetServings <= 0) throw new IllegalArgumentException("targetServings must be > 0");
+
+        List<Object[]> rows = recipeRepository.findServingsAndVersion(id);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        int currentServings = (Integer) rows.get(0)[0];
+        long version = (Long) rows.get(0)[1];
+        if (currentServings <= 0) throw new IllegalStateException("recipe.servings must be > 0");
+
+        scalePortions(id, version, currentServings, targetServings);
+        return recipeQueryRepository.findById(id);
+    }
+
+    private void scalePortions(Long id, long version, int currentServings, int targetServings) {
+        if (recipeRepository.updateServingsIfVersion(id, version, currentServings, targetServings) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Recipe.class, id);
+        }
+        recipeRepository.scaleIngredientQuantities(id, currentServings, targetServings);
+        nutritionCalculator.recompute(id);
+        eventPublisher.publishEvent(RecipeChangedEvent.of(RecipeChangedEvent.ChangeType.UPDATED, id));
+    }
+
+    // round half up, minimum 1 unit; must stay in sync with RecipeRepository.scaleIngredientQuantities
+    static long scaleQuantity(long quantity, int currentServings, int targetServings) {
+        long scaled = (quantity * targetServings * 2 + currentServings) / (currentServings * 2L);
+        return Math.max(scaled, 1);
     }
 
     // Business Logic Method 2: Check if Vegetarian
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean isVegetarian(Recipe recipe) {
-        for (Ingredient ing : recipe.getIngredients()) {
-            IngredientCategory c = ing.getCategory();
-            if (c == IngredientCategory.MEAT ||
-                    c == IngredientCategory.POULTRY ||
-                    c == IngredientCategory.FISH ||
-                    c == IngredientCategory.SEAFOOD) {
-                return false;
-            }
-        }
-        return true;
+        return Diet.VEGETARIAN.matches(Diet.maskOf(recipe.getIngredients()));
     }
 
     // Business Logic Method 3: Calculate Total Cooking Time
+    @Transactional(propagation = Propagation.SUPPORTS)
     public int calculateTotalCookingTime(Recipe recipe) {
         int sum = 0;
         for (InstructionStep step : recipe.getSteps()) {
@@ -0,0 +1,168 @@
+package org.manager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Per request JDBC and latency counters. RequestProfilerFilter opens a Profile on the request thread,
+// ProfilingDataSource and the profiling Jackson converter (ProfilerConfig) add to it, and on finish
+// requests slower than slow-threshold, or with an N+1 suspect, go into a ring buffer of the last
+// `capacity` such requests (shown at admin/profiler and GET /api/admin/profiler).
+// N+1 suspect: the same SELECT shape (SQL with literals and IN lists collapsed) run at least
+// n-plus-one-threshold times in one request, typically a lazy collection loaded per row.
+// Outside a request nothing is recorded and the DataSource hands out unwrapped connections.
+@Component
+public class RequestProfiler {
+
+    public record ProfiledRequest(Instant startedAt, String request, int status, double millis,
+                                  int statements, long rows, double jdbcMillis, double serializationMillis,
+                                  List<RepeatedStatement> repeatedStatements) { }
+
+    public record RepeatedStatement(String shape, int count) { }
+
+    private static final ThreadLocal<Profile> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_SHAPE_LENGTH = 300;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Hibernate sends a small set of parameterized statements, so shapes are computed once per SQL
+    private static final int MAX_CACHED_SHAPES = 2000;
+    private static final Map<String, String> SHAPES = new ConcurrentHashMap<>();
+
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final ProfiledRequest[] ring;
+    private int next;
+    private int size;
+
+    public RequestProfiler(@Value("${cookingbook.profiler.slow-threshold:PT0.2S}") Duration slowThreshold,
+                           @Value("${cookingbook.profiler.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                           @Value("${cookingbook.profiler.capacity:100}") int capacity) {
+        if (nPlusOneThreshold < 2) throw new IllegalArgumentException("n-plus-one-threshold must be >= 2");
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.ring = new ProfiledRequest[capacity];
+    }
+
+    // The profile of the current thread, null outside a profiled request
+    static Profile current() {
+        return CURRENT.get();
+    }
+
+    public void start(String request) {
+        CURRENT.set(new Profile(request));
+    }
+
+    public void finish(int status) {
+        Profile profile = CURRENT.get();
+        if (profile == null) return;
+        CURRENT.remove();
+        long elapsed = System.nanoTime() - profile.startNanos;
+        List<RepeatedStatement> repeated = repeatedStatements(profile.shapes, nPlusOneThreshold);
+        if (elapsed < slowThresholdNanos && repeated.isEmpty()) return;
+
+        ProfiledRequest profiled = new ProfiledRequest(profile.startedAt, profile.request, status,
+                elapsed / 1e6, profile.statements, profile.rows,
+                profile.jdbcNanos / 1e6, profile.serializationNanos / 1e6, repeated);
+        synchronized (ring) {
+            ring[next] = profiled;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+    }
+
+    // Buffered requests, slowest first
+    public List<ProfiledRequest> slowest() {
+        List<ProfiledRequest> requests = new ArrayList<>();
+        synchronized (ring) {
+            for (int i = 0; i < size; i++) {
+                requests.add(ring[i]);
+            }
+        }
+        requests.sort(Comparator.comparingDouble(ProfiledRequest::millis).reversed());
+        return requests;
+    }
+
+    public void clear() {
+        synchronized (ring) {
+            Arrays.fill(ring, null);
+            next = 0;
+            size = 0;
+        }
+    }
+
+    static List<RepeatedStatement> repeatedStatements(Map<String, Integer> shapes, int threshold) {
+        List<RepeatedStatement> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> shape : shapes.entrySet()) {
+            if (shape.getValue() >= threshold && shape.getKey().regionMatches(true, 0, "select", 0, 6)) {
+                repeated.add(new RepeatedStatement(shape.getKey(), shape.getValue()));
+            }
+        }
+        repeated.sort(Comparator.comparingInt(RepeatedStatement::count).reversed());
+        return repeated;
+    }
+
+    // "select ... where r.id=42 and name in ('a','b')" -> "select ... where r.id=? and name in (?...)"
+    static String shapeOf(String sql) {
+        String cached = SHAPES.get(sql);
+        if (cached != null) return cached;
+        String shape = normalize(sql);
+        if (SHAPES.size() < MAX_CACHED_SHAPES) {
+            SHAPES.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+
+    // Only touched by the request thread
+    static final class Profile {
+        private final String request;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private int statements;
+        private long rows;
+        private long jdbcNanos;
+        private long serializationNanos;
+
+        Profile(String request) {
+            this.request = request;
+        }
+
+        void statement(String sql, long nanos) {
+            statements++;
+            jdbcNanos += nanos;
+            if (sql != null) {
+                shapes.merge(shapeOf(sql), 1, Integer::sum);
+            }
+        }
+
+        void row() {
+            rows++;
+        }
+
+        void serialization(long nanos) {
+            serializationNanos += nanos;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.manager;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Opens a RequestProfiler profile around every page, Vaadin and REST request. Runs first, so the
+// measured latency includes admission queueing. Static resources and the profiler itself are skipped.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestProfilerFilter extends OncePerRequestFilter {
+
+    private static final String[] SKIPPED = {"/VAADIN/", "/frontend/", "/actuator", "/favicon", "/api/admin/profiler"};
+
+    private static final Pattern VAADIN_REQUEST = Pattern.compile("(?:^|&)v-r=([^&]*)");
+
+    private final RequestProfiler profiler;
+    private final boolean enabled;
+
+    public RequestProfilerFilter(RequestProfiler profiler,
+                                 @Value("${cookingbook.profiler.enabled:true}") boolean enabled) {
+        this.profiler = profiler;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String skipped : SKIPPED) {
+            if (path.startsWith(skipped)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        profiler.start(label(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            profiler.finish(response.getStatus());
+        }
+    }
+
+    // Vaadin round trips all go to the servlet root; v-r tells them apart (uidl, heartbeat, ...).
+    // Read from the query string, getParameter could consume a form body.
+    private static String label(HttpServletRequest request) {
+        String label = request.getMethod() + " " + request.getRequestURI();
+        Matcher vaadinRequest = request.getQueryString() != null
+                ? VAADIN_REQUEST.matcher(request.getQueryString()) : null;
+        return vaadinRequest != null && vaadinRequest.find() ? label + " (" + vaadinRequest.group(1) + ")" : label;
+    }
+}
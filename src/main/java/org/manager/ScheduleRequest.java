@@ -0,0 +1,8 @@
+package org.manager;
+
+import java.util.List;
+import java.util.Map;
+
+// A service window: recipes to cook (repeat an id for several batches), stations per type and cooks
+public record ScheduleRequest(List<Long> recipeIds, Map<StationType, Integer> stations, int cooks) {
+}
@@ -0,0 +1,188 @@
+package org.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ddl-auto=update only adds tables and columns, it never changes existing constraints.
+// This brings databases created by older versions in line with the current mapping.
+// Runs before DataInitializer.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SchemaMigrations implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        addCascadeToRecipeForeignKeys();
+        moveIngredientNamesToCatalog();
+        requireCatalogIngredientReference();
+        backfillCategoryMasks();
+        markUncategorizedIngredients();
+        resetOutboxSequenceIncrement();
+    }
+
+    // Child rows must go with ON DELETE CASCADE for the single-statement recipe deletes
+    private void addCascadeToRecipeForeignKeys() {
+        List<Map<String, Object>> constraints = jdbcTemplate.queryForList(
+                "select tc.table_name, tc.constraint_name " +
+                "from information_schema.table_constraints tc " +
+                "join information_schema.referential_constraints rc " +
+                "  on rc.constraint_schema = tc.constraint_schema and rc.constraint_name = tc.constraint_name " +
+                "join information_schema.key_column_usage kcu " +
+                "  on kcu.constraint_schema = tc.constraint_schema and kcu.constraint_name = tc.constraint_name " +
+                "where tc.constraint_type = 'FOREIGN KEY' and rc.delete_rule <> 'CASCADE' " +
+                "and kcu.column_name = 'RECIPE_ID' " +
+                "and tc.table_name in ('INGREDIENT', 'INSTRUCTION_STEP', 'NUTRITIONAL_INFO')");
+
+        for (Map<String, Object> constraint : constraints) {
+            String table = (String) constraint.get("TABLE_NAME");
+            String name = (String) constraint.get("CONSTRAINT_NAME");
+            jdbcTemplate.execute("alter table " + table + " drop constraint " + name);
+            jdbcTemplate.execute("alter table " + table + " add constraint " + name +
+                    " foreign key (recipe_id) references recipe(id) on delete cascade");
+            log.info("Migrated {}.{} to ON DELETE CASCADE", table, name);
+        }
+    }
+
+    // Ingredient rows used to carry their own name and category. Each distinct normalized name
+    // becomes one catalog_ingredient row (named after its most used spelling, with that spelling's
+    // category), the line items are pointed at it and the old columns are dropped.
+    // Safe to re-run after an interruption: it only fills references that are still missing.
+    private void moveIngredientNamesToCatalog() {
+        if (!columnExists("INGREDIENT", "NAME")) {
+            return;
+        }
+
+        List<Map<String, Object>> variants = jdbcTemplate.queryForList(
+                "select name, category, count(*) as uses from ingredient group by name, category order by uses desc");
+        Map<String, Long> catalogIds = new HashMap<>();
+        jdbcTemplate.query("select id, normalized_name from catalog_ingredient",
+                rs -> { catalogIds.put(rs.getString("normalized_name"), rs.getLong("id")); });
+
+        Map<String, Object[]> newEntries = new LinkedHashMap<>();
+        for (Map<String, Object> variant : variants) {
+            String name = displayName((String) variant.get("NAME"));
+            String normalized = CatalogIngredient.normalize(name);
+            if (!catalogIds.containsKey(normalized)) {
+                newEntries.putIfAbsent(normalized, new Object[]{name, normalized, variant.get("CATEGORY")});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into catalog_ingredient (name, normalized_name, category) values (?, ?, ?)",
+                new ArrayList<>(newEntries.values()));
+        jdbcTemplate.query("select id, normalized_name from catalog_ingredient",
+                rs -> { catalogIds.put(rs.getString("normalized_name"), rs.getLong("id")); });
+
+        List<Object[]> references = new ArrayList<>();
+        boolean hasUnnamed = false;
+        for (Map<String, Object> variant : variants) {
+            String name = (String) variant.get("NAME");
+            if (name == null) {
+                hasUnnamed = true;
+            } else {
+                references.add(new Object[]{catalogIds.get(CatalogIngredient.normalize(displayName(name))), name});
+            }
+        }
+        jdbcTemplate.batchUpdate("update ingredient set catalog_ingredient_id = ? " +
+                "where name = ? and catalog_ingredient_id is null", distinct(references));
+        if (hasUnnamed) {
+            jdbcTemplate.update("update ingredient set catalog_ingredient_id = ? " +
+                    "where name is null and catalog_ingredient_id is null",
+                    catalogIds.get(CatalogIngredient.normalize(displayName(null))));
+        }
+
+        jdbcTemplate.execute("alter table ingredient drop column name");
+        jdbcTemplate.execute("alter table ingredient drop column category");
+        log.info("Migrated ingredient names to catalog_ingredient ({} new entries)", newEntries.size());
+    }
+
+    private void requireCatalogIngredientReference() {
+        List<String> nullable = jdbcTemplate.queryForList(
+                "select is_nullable from information_schema.columns " +
+                "where table_name = 'INGREDIENT' and column_name = 'CATALOG_INGREDIENT_ID'", String.class);
+        if (!nullable.isEmpty() && "YES".equals(nullable.get(0))) {
+            jdbcTemplate.execute("alter table ingredient alter column catalog_ingredient_id set not null");
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns where table_name = ? and column_name = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private static String displayName(String name) {
+        return name == null || name.isBlank() ? "Unknown" : name.trim();
+    }
+
+    // several categories of the same spelling group to one update
+    private static List<Object[]> distinct(List<Object[]> references) {
+        Map<Object, Object[]> byName = new LinkedHashMap<>();
+        for (Object[] reference : references) {
+            byName.putIfAbsent(reference[1], reference);
+        }
+        return new ArrayList<>(byName.values());
+    }
+
+    // Recipes created before Recipe.categoryMask existed start at 0. Each category is one bit,
+    // so the sum of the distinct bits of a recipe's ingredients is their OR.
+    private void backfillCategoryMasks() {
+        StringBuilder bit = new StringBuilder("case c.category");
+        for (IngredientCategory category : IngredientCategory.values()) {
+            bit.append(" when '").append(category.name()).append("' then ").append(Diet.bit(category));
+        }
+        bit.append(" else ").append(Diet.UNCATEGORIZED).append(" end");
+
+        int updated = jdbcTemplate.update(
+                "update recipe r set category_mask = coalesce((" +
+                "  select sum(distinct " + bit + ") from ingredient i " +
+                "  join catalog_ingredient c on c.id = i.catalog_ingredient_id where i.recipe_id = r.id), 0) " +
+                "where r.category_mask = 0 and exists (select 1 from ingredient i where i.recipe_id = r.id)");
+        if (updated > 0) {
+            log.info("Backfilled the category mask of {} recipes", updated);
+        }
+    }
+
+    // Masks computed before Diet.UNCATEGORIZED existed left ingredients without a category out
+    private void markUncategorizedIngredients() {
+        int updated = jdbcTemplate.update(
+                "update recipe r set category_mask = bitor(category_mask, ?), version = version + 1 " +
+                "where bitand(category_mask, ?) = 0 and exists (select 1 from ingredient i " +
+                "  join catalog_ingredient c on c.id = i.catalog_ingredient_id " +
+                "  where i.recipe_id = r.id and c.category is null)",
+                Diet.UNCATEGORIZED, Diet.UNCATEGORIZED);
+        if (updated > 0) {
+            log.info("Marked {} recipes with uncategorized ingredients", updated);
+        }
+    }
+
+    // The outbox sequence used to hand out blocks of 50; ChangeFeed needs one value per row
+    private void resetOutboxSequenceIncrement() {
+        List<Long> increments = jdbcTemplate.queryForList(
+                "select increment from information_schema.sequences where sequence_name = 'OUTBOX_EVENT_SEQ'",
+                Long.class);
+        if (!increments.isEmpty() && increments.get(0) != 1) {
+            jdbcTemplate.execute("alter sequence outbox_event_seq increment by 1");
+            log.info("Migrated outbox_event_seq to increment by 1");
+        }
+    }
+}
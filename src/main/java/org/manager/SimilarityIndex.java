@@ -0,0 +1,207 @@
+package org.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// "Recipes similar to this one" without comparing against the whole catalog.
+// Each recipe becomes a set of features (dictionary ingredient ids and categories), summarized
+// by a MinHash signature. Signatures are split into bands; recipes sharing any band bucket are
+// candidates, and only those are ranked by exact Jaccard similarity of their feature sets.
+// With 16 bands of 4 rows, pairs above ~0.5 Jaccard are found with high probability.
+@Component
+public class SimilarityIndex {
+
+    public record SimilarRecipe(Long id, String name, double similarity) { }
+
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 4;
+    private static final int SIGNATURE_LENGTH = BANDS * ROWS_PER_BAND;
+
+    private record Entry(String name, Set<String> features, long[] bandKeys) { }
+
+    // multiply-shift hash family, fixed seed so signatures are stable across restarts
+    private final long[] hashA = new long[SIGNATURE_LENGTH];
+    private final long[] hashB = new long[SIGNATURE_LENGTH];
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final List<Map<Long, Set<Long>>> buckets = new ArrayList<>(BANDS);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SimilarityIndex() {
+        Random random = new Random(0x5EED);
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            hashA[i] = random.nextLong() | 1L;
+            hashB[i] = random.nextLong();
+        }
+        for (int b = 0; b < BANDS; b++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : entityManager.createQuery("select r.id, r.name from Recipe r", Object[].class)
+                .getResultList()) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        Map<Long, Set<String>> features = loadFeatures(entityManager.createQuery(
+                "select i.recipe.id, c.id, c.category from Ingredient i join i.catalogIngredient c",
+                Object[].class).getResultList());
+
+        synchronized (this) {
+            entries.clear();
+            buckets.forEach(Map::clear);
+            names.forEach((id, name) -> put(id, name, features.getOrDefault(id, Set.of())));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.type() == RecipeChangedEvent.ChangeType.DELETED) {
+            synchronized (this) {
+                event.recipeIds().forEach(this::remove);
+            }
+            return;
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : queryByIds("select r.id, r.name from Recipe r where r.id in :ids", event.recipeIds())) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        Map<Long, Set<String>> features = loadFeatures(queryByIds(
+                "select i.recipe.id, c.id, c.category from Ingredient i join i.catalogIngredient c "
+                        + "where i.recipe.id in :ids", event.recipeIds()));
+
+        synchronized (this) {
+            names.forEach((id, name) -> put(id, name, features.getOrDefault(id, Set.of())));
+        }
+    }
+
+    // the ids of a bulk UPDATED event, bound in RecipeQueryRepository chunks
+    private List<Object[]> queryByIds(String jpql, List<Long> ids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (List<Long> chunk : RecipeQueryRepository.chunks(List.copyOf(ids))) {
+            rows.addAll(entityManager.createQuery(jpql, Object[].class).setParameter("ids", chunk).getResultList());
+        }
+        return rows;
+    }
+
+    public synchronized List<SimilarRecipe> findSimilar(Long recipeId, int limit) {
+        Entry entry = entries.get(recipeId);
+        if (entry == null || entry.features().isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (int b = 0; b < BANDS; b++) {
+            Set<Long> bucket = buckets.get(b).get(entry.bandKeys()[b]);
+            if (bucket != null) candidates.addAll(bucket);
+        }
+        candidates.remove(recipeId);
+
+        List<SimilarRecipe> result = new ArrayList<>(candidates.size());
+        for (Long candidate : candidates) {
+            Entry other = entries.get(candidate);
+            result.add(new SimilarRecipe(candidate, other.name(), jaccard(entry.features(), other.features())));
+        }
+        result.sort(Comparator.comparingDouble(SimilarRecipe::similarity).reversed()
+                .thenComparing(SimilarRecipe::id));
+        return List.copyOf(result.subList(0, Math.min(limit, result.size())));
+    }
+
+    synchronized void put(Long recipeId, String name, Set<String> features) {
+        remove(recipeId);
+        long[] bandKeys = bandKeys(signature(features));
+        entries.put(recipeId, new Entry(name, features, bandKeys));
+        if (features.isEmpty()) return; // nothing to be similar on
+        for (int b = 0; b < BANDS; b++) {
+            buckets.get(b).computeIfAbsent(bandKeys[b], k -> new HashSet<>()).add(recipeId);
+        }
+    }
+
+    synchronized void remove(Long recipeId) {
+        Entry previous = entries.remove(recipeId);
+        if (previous == null) return;
+        for (int b = 0; b < BANDS; b++) {
+            Set<Long> bucket = buckets.get(b).get(previous.bandKeys()[b]);
+            if (bucket != null) {
+                bucket.remove(recipeId);
+                if (bucket.isEmpty()) buckets.get(b).remove(previous.bandKeys()[b]);
+            }
+        }
+    }
+
+    private static Map<Long, Set<String>> loadFeatures(List<Object[]> rows) {
+        Map<Long, Set<String>> features = new HashMap<>();
+        for (Object[] row : rows) {
+            Set<String> set = features.computeIfAbsent((Long) row[0], k -> new HashSet<>());
+            set.add("i:" + row[1]); // dictionary id, spelling variants are already merged
+            if (row[2] != null) set.add("c:" + ((IngredientCategory) row[2]).name());
+        }
+        return features;
+    }
+
+    private long[] signature(Collection<String> features) {
+        long[] signature = new long[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String feature : features) {
+            long x = fnv1a64(feature);
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                long h = (hashA[i] * x + hashB[i]) >>> 1; // non-negative for comparison
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    private static long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int b = 0; b < BANDS; b++) {
+            long key = b; // same rows in different bands must not collide
+            for (int r = 0; r < ROWS_PER_BAND; r++) {
+                key = key * 0x9E3779B97F4A7C15L + signature[b * ROWS_PER_BAND + r];
+            }
+            keys[b] = key;
+        }
+        return keys;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) return 0;
+        int intersection = 0;
+        for (String feature : a) {
+            if (b.contains(feature)) intersection++;
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+
+    private static long fnv1a64(String s) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
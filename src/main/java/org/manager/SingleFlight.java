@@ -0,0 +1,59 @@
+package org.manager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Concurrent calls with an equal key share one execution: the first caller (the leader) runs the
+// loader, everyone arriving while it runs waits for and gets the same result or exception.
+// Nothing is cached: once the leader is done the next call for the key runs the loader again.
+// Results are handed to several threads at once, so they must be immutable.
+public class SingleFlight<K, V> {
+
+    public interface Listener {
+        void onCall(boolean coalesced);
+    }
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Listener listener;
+
+    public SingleFlight(Listener listener) {
+        this.listener = listener;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            listener.onCall(true);
+            return await(running);
+        }
+        listener.onCall(false);
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.manager;
+
+// Where a step is done in the kitchen, for KitchenScheduler
+public enum StationType {
+    PREP(true),
+    STOVE(true),
+    OVEN(false); // bakes unattended, the cook is free meanwhile
+
+    private final boolean needsCook;
+
+    StationType(boolean needsCook) {
+        this.needsCook = needsCook;
+    }
+
+    public boolean needsCook() {
+        return needsCook;
+    }
+}
@@ -0,0 +1,20 @@
+package org.manager;
+
+public record StepDto(Long id, int stepNumber, String description, int durationMinutes,
+                      StationType stationType, String dependsOn) {
+
+    // a plain step in sequence at the prep station
+    public StepDto(Long id, int stepNumber, String description, int durationMinutes) {
+        this(id, stepNumber, description, durationMinutes, null, null);
+    }
+
+    public static StepDto from(InstructionStep step) {
+        return new StepDto(step.getId(), step.getStepNumber(), step.getDescription(), step.getDurationMinutes(),
+                step.getStationType(), step.getDependsOn());
+    }
+
+    public InstructionStep toEntity() {
+        return new InstructionStep(stepNumber, description, durationMinutes,
+                stationType != null ? stationType : StationType.PREP, dependsOn);
+    }
+}
@@ -0,0 +1,230 @@
+package org.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Typeahead over recipe and ingredient names. A prefix trie where every node caches its top-k
+// completions by popularity (number of recipes using the name), so a lookup is one walk down the
+// prefix plus reading a small cached list. Writes invalidate the caches along the changed paths only.
+@Component
+public class SuggestionIndex {
+
+    public record Suggestion(String text, Type type, int popularity) {
+        public enum Type { RECIPE, INGREDIENT }
+    }
+
+    // completions cached per node; requests for more are answered by a full walk
+    static final int CACHED_TOP_K = 10;
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        Node parent;
+        // per type: display text and how many recipes use it, set when a name ends here
+        final Map<Suggestion.Type, Entry> terminal = new HashMap<>(2);
+        List<Suggestion> top; // null = needs recomputation
+
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) return children[i];
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node node = new Node();
+            node.parent = this;
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = node;
+            return node;
+        }
+    }
+
+    private static final class Entry {
+        String text;
+        int count;
+    }
+
+    private final Node root = new Node();
+    // which names each recipe contributed, to undo them when the recipe changes
+    private final Map<Long, List<Term>> termsByRecipe = new HashMap<>();
+
+    private record Term(String text, Suggestion.Type type) { }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, List<Term>> terms = new HashMap<>();
+        for (Object[] row : entityManager.createQuery("select r.id, r.name from Recipe r", Object[].class)
+                .getResultList()) {
+            terms.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                    .add(new Term((String) row[1], Suggestion.Type.RECIPE));
+        }
+        for (Object[] row : entityManager.createQuery(
+                "select i.recipe.id, c.name from Ingredient i join i.catalogIngredient c", Object[].class)
+                .getResultList()) {
+            terms.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                    .add(new Term((String) row[1], Suggestion.Type.INGREDIENT));
+        }
+        synchronized (this) {
+            clear();
+            terms.forEach(this::put);
+        }
+    }
+
+    // Incremental maintenance: re-read only the names of the recipes that changed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.type() == RecipeChangedEvent.ChangeType.DELETED) {
+            synchronized (this) {
+                event.recipeIds().forEach(this::remove);
+            }
+            return;
+        }
+        Map<Long, List<Term>> terms = new HashMap<>();
+        for (Long id : event.recipeIds()) {
+            terms.put(id, new ArrayList<>());
+        }
+        for (Object[] row : queryByIds("select r.id, r.name from Recipe r where r.id in :ids", event.recipeIds())) {
+            terms.get((Long) row[0]).add(new Term((String) row[1], Suggestion.Type.RECIPE));
+        }
+        for (Object[] row : queryByIds("select i.recipe.id, c.name from Ingredient i join i.catalogIngredient c "
+                + "where i.recipe.id in :ids", event.recipeIds())) {
+            terms.get((Long) row[0]).add(new Term((String) row[1], Suggestion.Type.INGREDIENT));
+        }
+        synchronized (this) {
+            terms.forEach(this::put);
+        }
+    }
+
+    // one statement per RecipeQueryRepository chunk; bulk events (recomputes, the generator) carry many ids
+    private List<Object[]> queryByIds(String jpql, List<Long> ids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (List<Long> chunk : RecipeQueryRepository.chunks(List.copyOf(ids))) {
+            rows.addAll(entityManager.createQuery(jpql, Object[].class).setParameter("ids", chunk).getResultList());
+        }
+        return rows;
+    }
+
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        if (prefix == null || limit <= 0) return List.of();
+        Node node = root;
+        for (char c : normalize(prefix).toCharArray()) {
+            node = node.child(c);
+            if (node == null) return List.of();
+        }
+        List<Suggestion> top = limit <= CACHED_TOP_K ? topOf(node) : collect(node, limit);
+        return List.copyOf(top.subList(0, Math.min(limit, top.size())));
+    }
+
+    synchronized void put(Long recipeId, Collection<Term> terms) {
+        remove(recipeId);
+        // a name counts once per recipe
+        Set<Term> distinct = new HashSet<>();
+        for (Term term : terms) {
+            if (term.text() != null && !term.text().isBlank()) {
+                distinct.add(new Term(term.text().trim(), term.type()));
+            }
+        }
+        for (Term term : distinct) {
+            adjust(term, 1);
+        }
+        termsByRecipe.put(recipeId, List.copyOf(distinct));
+    }
+
+    synchronized void remove(Long recipeId) {
+        List<Term> previous = termsByRecipe.remove(recipeId);
+        if (previous != null) {
+            for (Term term : previous) {
+                adjust(term, -1);
+            }
+        }
+    }
+
+    private void clear() {
+        root.keys = new char[0];
+        root.children = new Node[0];
+        root.terminal.clear();
+        root.top = null;
+        termsByRecipe.clear();
+    }
+
+    private void adjust(Term term, int delta) {
+        Node node = root;
+        for (char c : normalize(term.text()).toCharArray()) {
+            Node next = node.child(c);
+            if (next == null) {
+                if (delta < 0) return;
+                next = node.addChild(c);
+            }
+            node = next;
+        }
+        Entry entry = node.terminal.computeIfAbsent(term.type(), t -> new Entry());
+        if (entry.text == null) entry.text = term.text();
+        entry.count += delta;
+        if (entry.count <= 0) node.terminal.remove(term.type());
+
+        // the cached completions of this node and all its ancestors may have changed
+        for (Node n = node; n != null; n = n.parent) {
+            n.top = null;
+        }
+    }
+
+    // top-k of a subtree = best of its own terminals and its children's top-k, computed lazily
+    private List<Suggestion> topOf(Node node) {
+        if (node.top != null) return node.top;
+        List<Suggestion> candidates = new ArrayList<>();
+        node.terminal.forEach((type, entry) -> candidates.add(new Suggestion(entry.text, type, entry.count)));
+        for (Node child : node.children) {
+            candidates.addAll(topOf(child));
+        }
+        candidates.sort(SuggestionIndex::byPopularity);
+        node.top = List.copyOf(candidates.subList(0, Math.min(CACHED_TOP_K, candidates.size())));
+        return node.top;
+    }
+
+    private List<Suggestion> collect(Node node, int limit) {
+        List<Suggestion> all = new ArrayList<>();
+        collectInto(node, all);
+        all.sort(SuggestionIndex::byPopularity);
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    private void collectInto(Node node, List<Suggestion> out) {
+        node.terminal.forEach((type, entry) -> out.add(new Suggestion(entry.text, type, entry.count)));
+        for (Node child : node.children) {
+            collectInto(child, out);
+        }
+    }
+
+    private static int byPopularity(Suggestion a, Suggestion b) {
+        int c = Integer.compare(b.popularity(), a.popularity());
+        return c != 0 ? c : a.text().compareToIgnoreCase(b.text());
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,33 @@
 package org.manager;
 
 public enum Unit {
-    G, KG, ML, L, TSP, TBSP, PCS
+    G(Dimension.MASS, 1), KG(Dimension.MASS, 1000),
+    ML(Dimension.VOLUME, 1), L(Dimension.VOLUME, 1000), TSP(Dimension.VOLUME, 5), TBSP(Dimension.VOLUME, 15),
+    PCS(Dimension.COUNT, 1);
+
+    // quantities only convert within a dimension (no densities: 1 L of flour is not 1 kg)
+    public enum Dimension { MASS, VOLUME, COUNT }
+
+    private final Dimension dimension;
+    private final double baseFactor; // in g, ml or pieces
+
+    Unit(Dimension dimension, double baseFactor) {
+        this.dimension = dimension;
+        this.baseFactor = baseFactor;
+    }
+
+    public Dimension dimension() {
+        return dimension;
+    }
+
+    public double toBase(double quantity) {
+        return quantity * baseFactor;
+    }
+
+    public double convert(double quantity, Unit target) {
+        if (target.dimension != dimension) {
+            throw new IllegalArgumentException("Cannot convert " + this + " to " + target);
+        }
+        return quantity * baseFactor / target.baseFactor;
+    }
 }
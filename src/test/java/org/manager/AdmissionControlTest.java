@@ -0,0 +1,49 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    @Test
+    @DisplayName("Admission: Over the limit requests queue, then time out or are rejected")
+    void testLimiter_QueueAndReject() throws Exception {
+        AdmissionControl.Limiter limiter = new AdmissionControl.Limiter(1, 0, Duration.ofMillis(20));
+
+        assertEquals(AdmissionControl.Decision.ADMITTED, limiter.acquire());
+        assertEquals(AdmissionControl.Decision.QUEUE_FULL, limiter.acquire(), "No queue: rejected at once");
+
+        limiter.resize(null, 1, null);
+        assertEquals(AdmissionControl.Decision.TIMED_OUT, limiter.acquire(), "Queued, but nothing was released");
+        assertEquals(0, limiter.queued());
+
+        limiter.release();
+        assertEquals(AdmissionControl.Decision.ADMITTED, limiter.acquire());
+        assertEquals(1, limiter.active());
+    }
+
+    @Test
+    @DisplayName("Admission: Limits can be resized while requests are running")
+    void testLimiter_Resize() throws Exception {
+        AdmissionControl.Limiter limiter = new AdmissionControl.Limiter(2, 0, Duration.ZERO);
+        assertEquals(AdmissionControl.Decision.ADMITTED, limiter.acquire());
+        assertEquals(AdmissionControl.Decision.ADMITTED, limiter.acquire());
+
+        // shrinking below the running count admits nothing new until enough have finished
+        limiter.resize(1, null, null);
+        limiter.release();
+        assertEquals(AdmissionControl.Decision.QUEUE_FULL, limiter.acquire());
+        limiter.release();
+        assertEquals(AdmissionControl.Decision.ADMITTED, limiter.acquire());
+
+        limiter.resize(3, null, null);
+        assertEquals(AdmissionControl.Decision.ADMITTED, limiter.acquire());
+        assertEquals(AdmissionControl.Decision.ADMITTED, limiter.acquire());
+        assertEquals(AdmissionControl.Decision.QUEUE_FULL, limiter.acquire());
+        assertThrows(IllegalArgumentException.class, () -> limiter.resize(0, null, null));
+    }
+}
@@ -0,0 +1,145 @@
+package org.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Writers commit in their own transactions, so the reader sees real commit order
+@DataJpaTest
+@Import({ChangeFeed.class, RecipeQueryRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeFeedTest {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Change Feed: A page stops below an offset whose transaction has not committed")
+    void testRead_StopsBelowUncommittedOffset() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // takes the lower offset and commits last
+            Future<?> slowWriter = pool.submit(() -> transaction.executeWithoutResult(status -> {
+                changeFeed.onRecipeChanged(RecipeChangedEvent.of(RecipeChangedEvent.ChangeType.UPDATED, 1L));
+                firstWritten.countDown();
+                await(commitFirst);
+            }));
+            assertTrue(firstWritten.await(5, TimeUnit.SECONDS));
+            transaction.executeWithoutResult(status ->
+                    changeFeed.onRecipeChanged(RecipeChangedEvent.of(RecipeChangedEvent.ChangeType.UPDATED, 2L)));
+
+            ChangeFeed.ChangePage page = changeFeed.read(0, 100);
+            assertTrue(page.changes().isEmpty(), "The committed higher offset must wait for the lower one");
+            assertEquals(0, page.nextOffset());
+
+            commitFirst.countDown();
+            slowWriter.get(5, TimeUnit.SECONDS);
+            page = changeFeed.read(page.nextOffset(), 100);
+            assertEquals(List.of(1L, 2L), page.changes().stream().map(ChangeFeed.Change::recipeId).toList());
+        } finally {
+            commitFirst.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Change Feed: A reader following two concurrent writers skips no offset")
+    void testRead_ConcurrentWritersSkipNothing() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int writes = 200;
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Long> seen = new ArrayList<>();
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                long recipeId = w + 1;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < writes; i++) {
+                        transaction.executeWithoutResult(status -> {
+                            changeFeed.onRecipeChanged(
+                                    RecipeChangedEvent.of(RecipeChangedEvent.ChangeType.UPDATED, recipeId));
+                            // hold the offset for a moment so the two writers commit out of order
+                            sleep(ThreadLocalRandom.current().nextInt(3));
+                        });
+                    }
+                }));
+            }
+
+            long after = 0;
+            boolean writing = true;
+            while (writing) {
+                writing = writers.stream().anyMatch(writer -> !writer.isDone());
+                ChangeFeed.ChangePage page = changeFeed.read(after, 7);
+                page.changes().forEach(change -> seen.add(change.offset()));
+                after = page.nextOffset();
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            ChangeFeed.ChangePage page;
+            do {
+                page = changeFeed.read(after, 100);
+                page.changes().forEach(change -> seen.add(change.offset()));
+                after = page.nextOffset();
+            } while (!page.changes().isEmpty());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Long> written = outboxEventRepository.findAll().stream().map(OutboxEvent::getId).sorted().toList();
+        assertEquals(2 * writes, written.size());
+        assertEquals(written, seen, "Every offset once, in order");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DietTest {
+
+    @Test
+    @DisplayName("Diet: Rules are bitwise predicates over the category mask")
+    void testMatches_Rules() {
+        // Arrange: tomato and cheese, both VEGETARIAN
+        long mask = Diet.maskOf(List.of(
+                new Ingredient("Tomato", 400, Unit.G, IngredientCategory.VEGETARIAN),
+                new Ingredient("Cheese", 200, Unit.G, IngredientCategory.VEGETARIAN)));
+
+        // Assert
+        assertTrue(Diet.VEGETARIAN.matches(mask), "Vegetarian ingredients should pass VEGETARIAN");
+        assertFalse(Diet.VEGAN.matches(mask), "Vegetarian (animal-derived) ingredients are not vegan");
+        assertTrue(Diet.NO_ALCOHOL.matches(mask), "No alcoholic ingredients");
+        assertFalse(Diet.GLUTEN_FREE.matches(mask), "Unmarked ingredients are not claimed gluten-free");
+        assertTrue(Diet.GLUTEN_FREE.matches(Diet.bit(IngredientCategory.GLUTEN_FREE)),
+                "Only gluten-free ingredients should pass GLUTEN_FREE");
+        assertTrue(Diet.PESCATARIAN.matches(mask | Diet.bit(IngredientCategory.FISH)), "Fish is pescatarian");
+        assertFalse(Diet.PESCATARIAN.matches(mask | Diet.bit(IngredientCategory.POULTRY)), "Poultry is not");
+    }
+
+    @Test
+    @DisplayName("Diet: An ingredient without a category is not claimed gluten-free")
+    void testMaskOf_UncategorizedIngredient() {
+        // Arrange
+        long mask = Diet.maskOf(List.of(
+                new Ingredient("Rice", 200, Unit.G, IngredientCategory.GLUTEN_FREE),
+                new Ingredient("Mystery Spice", 1, Unit.TSP, null)));
+
+        // Assert
+        assertEquals(Diet.bit(IngredientCategory.GLUTEN_FREE) | Diet.UNCATEGORIZED, mask);
+        assertFalse(Diet.GLUTEN_FREE.matches(mask), "Unknown ingredients must not pass an allergen rule");
+        assertTrue(Diet.NO_ALCOHOL.matches(mask), "Exclusion rules only look at their own categories");
+    }
+}
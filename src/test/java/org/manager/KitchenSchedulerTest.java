@@ -0,0 +1,118 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KitchenSchedulerTest {
+
+    private final KitchenScheduler scheduler = new KitchenScheduler();
+
+    private static Recipe recipe(String name, InstructionStep... steps) {
+        Recipe recipe = new Recipe(name, "", Difficulty.EASY, 2);
+        for (InstructionStep step : steps) {
+            recipe.addStep(step);
+        }
+        return recipe;
+    }
+
+    @Test
+    @DisplayName("Independent recipes run side by side on separate stations")
+    void testSchedule_Parallel() {
+        KitchenScheduler.KitchenSchedule schedule = scheduler.schedule(List.of(
+                        recipe("Salad", new InstructionStep(1, "Chop", 10)),
+                        recipe("Salsa", new InstructionStep(1, "Chop", 10))),
+                Map.of(StationType.PREP, 2), 2);
+
+        assertEquals(10, schedule.makespanMinutes());
+        assertEquals(10, schedule.lowerBoundMinutes());
+        assertNotEquals(schedule.steps().get(0).stationIndex(), schedule.steps().get(1).stationIndex());
+    }
+
+    @Test
+    @DisplayName("The oven runs unattended while the only cook keeps working")
+    void testSchedule_OvenFreesCook() {
+        Recipe pie = recipe("Pie",
+                new InstructionStep(1, "Make the dough", 5),
+                new InstructionStep(2, "Bake", 30, StationType.OVEN, null));
+        Recipe soup = recipe("Soup", new InstructionStep(1, "Chop vegetables", 20));
+
+        KitchenScheduler.KitchenSchedule schedule = scheduler.schedule(List.of(pie, soup),
+                Map.of(StationType.PREP, 1, StationType.OVEN, 1), 1);
+
+        // the pie starts first because its chain is longer; the soup is chopped while it bakes
+        assertEquals(35, schedule.makespanMinutes());
+        KitchenScheduler.ScheduledStep bake = schedule.steps().stream()
+                .filter(s -> s.station() == StationType.OVEN).findFirst().orElseThrow();
+        assertEquals(5, bake.start());
+        assertNull(bake.cook());
+    }
+
+    @Test
+    @DisplayName("A step waits for every step it depends on")
+    void testSchedule_JoinDependency() {
+        Recipe curry = recipe("Curry",
+                new InstructionStep(1, "Chop", 10, StationType.PREP, ""),
+                new InstructionStep(2, "Cook the rice", 15, StationType.STOVE, ""),
+                new InstructionStep(3, "Plate", 5, StationType.PREP, "1,2"));
+
+        KitchenScheduler.KitchenSchedule schedule = scheduler.schedule(List.of(curry),
+                Map.of(StationType.PREP, 1, StationType.STOVE, 1), 2);
+
+        assertEquals(20, schedule.makespanMinutes());
+        assertEquals(List.of(2, 3), schedule.criticalPath().stream()
+                .map(KitchenScheduler.ScheduledStep::stepNumber).toList());
+    }
+
+    @Test
+    @DisplayName("Circular or unknown dependencies and missing stations are rejected")
+    void testSchedule_Invalid() {
+        Recipe circular = recipe("Loop",
+                new InstructionStep(1, "A", 5, StationType.PREP, "2"),
+                new InstructionStep(2, "B", 5, StationType.PREP, "1"));
+        Recipe unknown = recipe("Unknown", new InstructionStep(1, "A", 5, StationType.PREP, "7"));
+        Recipe baked = recipe("Bread", new InstructionStep(1, "Bake", 40, StationType.OVEN, null));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.schedule(List.of(circular), Map.of(StationType.PREP, 1), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.schedule(List.of(unknown), Map.of(StationType.PREP, 1), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.schedule(List.of(baked), Map.of(StationType.PREP, 1), 1));
+        assertThrows(IllegalArgumentException.class, () -> new InstructionStep(1, "A", 5, StationType.PREP, "x"));
+    }
+
+    @Test
+    @DisplayName("A service window of 300 recipes is planned well under a second")
+    void testSchedule_Performance() {
+        Random random = new Random(42);
+        StationType[] types = StationType.values();
+        List<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < 300; r++) {
+            InstructionStep[] steps = new InstructionStep[8];
+            for (int s = 0; s < steps.length; s++) {
+                String dependsOn = s < 2 ? "" : (s - 1) + "," + s; // two parallel starts, then a chain
+                steps[s] = new InstructionStep(s + 1, "Step", 1 + random.nextInt(30),
+                        types[random.nextInt(types.length)], dependsOn);
+            }
+            recipes.add(recipe("Dish " + r, steps));
+        }
+
+        KitchenScheduler.KitchenSchedule schedule = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> scheduler.schedule(recipes,
+                        Map.of(StationType.PREP, 6, StationType.STOVE, 8, StationType.OVEN, 4), 10));
+
+        assertEquals(2400, schedule.steps().size());
+        assertTrue(schedule.makespanMinutes() >= schedule.lowerBoundMinutes());
+        // list scheduling with critical-path priority stays close to the bound on resource-bound batches
+        assertTrue(schedule.makespanMinutes() <= schedule.lowerBoundMinutes() * 1.25,
+                schedule.makespanMinutes() + " vs bound " + schedule.lowerBoundMinutes());
+    }
+}
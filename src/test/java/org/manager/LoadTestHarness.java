@@ -0,0 +1,274 @@
+package org.manager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load generator for the REST API: `concurrency` workers each send the next request
+// as soon as the previous one returned. Works against any running instance, see RecipeApiLoadTest
+// for the JUnit entry point and main() for pointing it at an app started with `mvn spring-boot:run`.
+public class LoadTestHarness {
+
+    public enum Operation {
+        GET_BY_ID("GET /api/recipes/{id}"),
+        LIST("GET /api/recipes?fields=name,difficulty"),
+        SEARCH("GET /api/recipes/search?name="),
+        SCALE("POST /api/recipes/{id}/calculate-portions"),
+        CREATE("POST /api/recipes");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public record Config(String baseUrl,
+                         int concurrency,
+                         Duration warmup,
+                         Duration duration,
+                         Map<Operation, Integer> weights,
+                         Map<Operation, Long> p99BudgetMillis) {
+
+        // Defaults, each overridable with -Dloadtest.<name>=...
+        public static Config fromSystemProperties(String baseUrl) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            weights.put(Operation.GET_BY_ID, Integer.getInteger("loadtest.weight.GET_BY_ID", 50));
+            weights.put(Operation.LIST, Integer.getInteger("loadtest.weight.LIST", 10));
+            weights.put(Operation.SEARCH, Integer.getInteger("loadtest.weight.SEARCH", 25));
+            weights.put(Operation.SCALE, Integer.getInteger("loadtest.weight.SCALE", 10));
+            weights.put(Operation.CREATE, Integer.getInteger("loadtest.weight.CREATE", 5));
+
+            long defaultBudget = Long.getLong("loadtest.budget.p99Millis", 500);
+            Map<Operation, Long> budgets = new EnumMap<>(Operation.class);
+            for (Operation op : Operation.values()) {
+                budgets.put(op, Long.getLong("loadtest.budget." + op.name(), defaultBudget));
+            }
+
+            return new Config(baseUrl,
+                    Integer.getInteger("loadtest.concurrency", 32),
+                    Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5)),
+                    Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30)),
+                    weights,
+                    budgets);
+        }
+    }
+
+    public record EndpointStats(Operation operation, int requests, int errors, int conflicts,
+                                double throughputPerSecond, double p50Millis, double p95Millis, double p99Millis) {
+
+        public double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    public record Report(Duration duration, List<EndpointStats> endpoints, List<String> violations) {
+
+        public void print() {
+            System.out.printf("%n%-45s %8s %9s %8s %8s %8s %8s %8s%n",
+                    "endpoint", "requests", "req/s", "errors", "409", "p50 ms", "p95 ms", "p99 ms");
+            for (EndpointStats s : endpoints) {
+                System.out.printf("%-45s %8d %9.1f %7.2f%% %8d %8.2f %8.2f %8.2f%n",
+                        s.operation().label(), s.requests(), s.throughputPerSecond(), s.errorRate() * 100,
+                        s.conflicts(), s.p50Millis(), s.p95Millis(), s.p99Millis());
+            }
+            violations.forEach(v -> System.out.println("BUDGET EXCEEDED: " + v));
+        }
+    }
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String[] SEARCH_TERMS = {"pasta", "curry", "salad", "soup", "spicy", "chicken", "a", "classic"};
+
+    private final Config config;
+    private final HttpClient client;
+    private long[] recipeIds;
+
+    public LoadTestHarness(Config config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(config.concurrency()))
+                .build();
+    }
+
+    public Report run() throws Exception {
+        recipeIds = fetchRecipeIds();
+        if (recipeIds.length == 0) {
+            throw new IllegalStateException("No recipes at " + config.baseUrl() + ", seed the catalog first");
+        }
+
+        runPhase(config.warmup());
+        Recorder[] recorders = runPhase(config.duration());
+        return report(recorders);
+    }
+
+    private Recorder[] runPhase(Duration length) throws InterruptedException {
+        Recorder[] recorders = new Recorder[config.concurrency()];
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency());
+        CountDownLatch done = new CountDownLatch(config.concurrency());
+        long deadline = System.nanoTime() + length.toNanos();
+
+        for (int w = 0; w < recorders.length; w++) {
+            Recorder recorder = new Recorder();
+            recorders[w] = recorder;
+            workers.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Operation op = pickOperation();
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = send(op);
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        recorder.record(op, System.nanoTime() - start, status);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+        return recorders;
+    }
+
+    private Operation pickOperation() {
+        int total = config.weights().values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : config.weights().entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) return entry.getKey();
+        }
+        return Operation.GET_BY_ID;
+    }
+
+    private int send(Operation op) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = recipeIds[random.nextInt(recipeIds.length)];
+        HttpRequest request = switch (op) {
+            case GET_BY_ID -> get("/api/recipes/" + id);
+            case LIST -> get("/api/recipes?fields=name,difficulty");
+            case SEARCH -> get("/api/recipes/search?name=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+            case SCALE -> post("/api/recipes/" + id + "/calculate-portions?servings=" + (1 + random.nextInt(8)),
+                    HttpRequest.BodyPublishers.noBody());
+            case CREATE -> post("/api/recipes", HttpRequest.BodyPublishers.ofString("""
+                    {"name":"Load Test Recipe","description":"created by LoadTestHarness","difficulty":"EASY",
+                     "servings":2,
+                     "ingredients":[{"name":"Rice","quantity":200,"unit":"G","category":"GLUTEN_FREE"}],
+                     "steps":[{"stepNumber":1,"description":"Cook the rice.","durationMinutes":20}]}
+                    """));
+        };
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private long[] fetchRecipeIds() throws Exception {
+        String body = client.send(get("/api/recipes?fields=name"), HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = ID_PATTERN.matcher(body);
+        List<Long> ids = new ArrayList<>();
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, HttpRequest.BodyPublisher body) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+                .header("Content-Type", "application/json")
+                .POST(body)
+                .build();
+    }
+
+    private Report report(Recorder[] recorders) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        List<EndpointStats> stats = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+
+        for (Operation op : Operation.values()) {
+            int requests = 0, errors = 0, conflicts = 0;
+            for (Recorder r : recorders) {
+                requests += r.counts[op.ordinal()];
+                errors += r.errors[op.ordinal()];
+                conflicts += r.conflicts[op.ordinal()];
+            }
+            if (requests == 0) continue;
+
+            long[] latencies = new long[requests];
+            int offset = 0;
+            for (Recorder r : recorders) {
+                int n = r.counts[op.ordinal()];
+                System.arraycopy(r.latencies[op.ordinal()], 0, latencies, offset, n);
+                offset += n;
+            }
+            Arrays.sort(latencies);
+
+            EndpointStats s = new EndpointStats(op, requests, errors, conflicts, requests / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99));
+            stats.add(s);
+
+            long budget = config.p99BudgetMillis().getOrDefault(op, Long.MAX_VALUE);
+            if (s.p99Millis() > budget) {
+                violations.add(String.format("%s p99 %.1f ms > %d ms", op.label(), s.p99Millis(), budget));
+            }
+        }
+        return new Report(config.duration(), stats, violations);
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    // One per worker thread, so recording needs no synchronization
+    private static final class Recorder {
+        final int[] counts = new int[Operation.values().length];
+        final int[] errors = new int[Operation.values().length];
+        final int[] conflicts = new int[Operation.values().length];
+        final long[][] latencies = new long[Operation.values().length][1024];
+
+        void record(Operation op, long nanos, int status) {
+            int i = op.ordinal();
+            if (counts[i] == latencies[i].length) {
+                latencies[i] = Arrays.copyOf(latencies[i], latencies[i].length * 2);
+            }
+            latencies[i][counts[i]++] = nanos;
+            if (status == 409) {
+                conflicts[i]++; // lost an optimistic locking race, expected under concurrent scaling
+            } else if (status < 200 || status >= 300) {
+                errors[i]++;
+            }
+        }
+    }
+
+    // Against an already running app: java ... org.manager.LoadTestHarness http://localhost:8080
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        Report report = new LoadTestHarness(Config.fromSystemProperties(baseUrl)).run();
+        report.print();
+        if (!report.violations().isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
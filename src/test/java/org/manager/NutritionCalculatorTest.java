@@ -0,0 +1,59 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NutritionCalculatorTest {
+
+    // apply() only needs the nutrient table
+    private final NutritionCalculator calculator = new NutritionCalculator(null, null);
+
+    @Test
+    @DisplayName("Nutrition: Derived per serving from the nutrient table")
+    void testApply_ComputedFromIngredients() {
+        // Arrange: table entries are per 100 g; oil converts by density, eggs by piece weight
+        Recipe pasta = pasta();
+
+        // Act
+        calculator.apply(pasta);
+
+        // Assert: (1484 + 55.2 * 8.84 + 143) / 4
+        NutritionalInfo info = pasta.getNutritionalInfo();
+        assertNotNull(info);
+        assertTrue(info.isComputed());
+        assertEquals(529, info.getCalories());
+        assertEquals(17.7, info.getFat(), 0.1);
+
+        // an unknown ingredient makes the derived values stale
+        pasta.addIngredient(new Ingredient("Dragon Fruit", 1, Unit.PCS, IngredientCategory.VEGAN));
+        calculator.apply(pasta);
+        assertNull(pasta.getNutritionalInfo());
+    }
+
+    @Test
+    @DisplayName("Nutrition: Typed-in values are kept even when they could be derived")
+    void testApply_KeepsTypedInValues() {
+        // Arrange
+        Recipe pasta = pasta();
+        pasta.setNutritionalInfo(new NutritionalInfo(300, 10, 12, 30));
+
+        // Act
+        calculator.apply(pasta);
+
+        // Assert
+        NutritionalInfo info = pasta.getNutritionalInfo();
+        assertFalse(info.isComputed());
+        assertEquals(300, info.getCalories());
+        assertEquals(12, info.getFat(), 1e-9);
+    }
+
+    private static Recipe pasta() {
+        Recipe pasta = new Recipe("Pasta", "", Difficulty.EASY, 4);
+        pasta.addIngredient(new Ingredient("Spaghetti", 400, Unit.G, IngredientCategory.VEGAN));
+        pasta.addIngredient(new Ingredient("Olive Oil", 60, Unit.ML, IngredientCategory.VEGAN));
+        pasta.addIngredient(new Ingredient("Eggs", 2, Unit.PCS, IngredientCategory.VEGETARIAN));
+        return pasta;
+    }
+}
@@ -0,0 +1,94 @@
+package org.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against a real (embedded) database: every scaling call commits its own transaction.
+// No snapshot file: CatalogSnapshot would otherwise write ./data/catalog.snapshot on shutdown.
+@DataJpaTest(properties = "cookingbook.snapshot.path=")
+@Import({RecipeService.class, RecipeQueryRepository.class, CatalogSnapshot.class,
+        NutritionCalculator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PortionScalingConcurrencyTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 16;
+    private static final int[] TARGETS = {2, 4, 8};
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Calculate Portions: Parallel scaling never loses or mixes updates")
+    void testCalculatePortions_ParallelRequests() throws Exception {
+        // Arrange: 100 g tomato and 50 g cheese per serving; scaling between 2, 4 and 8 is exact
+        Recipe recipe = new Recipe("Stress Recipe", "Concurrency test", Difficulty.EASY, 4);
+        recipe.addIngredient(new Ingredient("Tomato", 400, Unit.G, IngredientCategory.VEGAN));
+        recipe.addIngredient(new Ingredient("Cheese", 200, Unit.G, IngredientCategory.VEGETARIAN));
+        Long id = recipeService.saveRecipe(recipe).getId();
+        long initialVersion = recipeRepository.findById(id).orElseThrow().getVersion();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                int target = TARGETS[i % TARGETS.length];
+                futures.add(executor.submit(() -> {
+                    try {
+                        recipeService.calculatePortions(id, target);
+                        succeeded.incrementAndGet();
+                    } catch (ConcurrencyFailureException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        Recipe result = recipeRepository.findById(id).orElseThrow();
+        int servings = result.getServings();
+
+        assertEquals(REQUESTS, succeeded.get() + rejected.get(), "Every request should either apply or be rejected");
+        assertTrue(succeeded.get() > 0, "At least one scaling request should succeed");
+        assertEquals(initialVersion + succeeded.get(), result.getVersion(),
+                "Each successful scaling should bump the version exactly once");
+        for (Ingredient ing : result.getIngredients()) {
+            long perServing = ing.getName().equals("Tomato") ? 100 : 50;
+            assertEquals(perServing * servings, ing.getQuantity(),
+                    ing.getName() + " quantity should match the final servings (" + servings + ")");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The readOnly flag RecipeService reads run with, and what it switches off underneath
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readonlytx;DB_CLOSE_DELAY=-1",
+        "cookingbook.snapshot.path="
+})
+@ActiveProfiles("api")
+class ReadOnlyTransactionTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Read-only Transactions: Service reads are declared readOnly, writes are not")
+    void testRecipeService_ReadsAreReadOnly() throws Exception {
+        AnnotationTransactionAttributeSource attributes = new AnnotationTransactionAttributeSource();
+        for (String read : new String[]{"getAllRecipes", "getAllRecipeDtos", "searchRecipesByName"}) {
+            TransactionAttribute attribute = attributes.getTransactionAttribute(
+                    firstMethod(read), RecipeService.class);
+            assertNotNull(attribute, read);
+            assertTrue(attribute.isReadOnly(), read + " should run read-only");
+        }
+        assertFalse(attributes.getTransactionAttribute(
+                RecipeService.class.getMethod("saveRecipe", Recipe.class), RecipeService.class).isReadOnly());
+    }
+
+    @Test
+    @DisplayName("Read-only Transactions: No dirty-checking snapshots, no flush, read-only connection")
+    void testReadOnlyTransaction_SessionAndConnection() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertTrue(session.isDefaultReadOnly(), "Entities should be loaded without snapshots");
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode(), "No flush on commit");
+            assertTrue(session.doReturningWork(Connection::isReadOnly), "The connection should be read-only");
+        });
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertFalse(entityManager.unwrap(Session.class).doReturningWork(Connection::isReadOnly),
+                        "Writes get a read-write connection back from the pool"));
+    }
+
+    private static Method firstMethod(String name) {
+        for (Method method : RecipeService.class.getMethods()) {
+            if (method.getName().equals(name)) return method;
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
@@ -0,0 +1,46 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Only runs with `mvn test -Pperf`. Starts the app on a random port with an in-memory database
+// and a generated catalog; -Dloadtest.baseUrl=http://localhost:8080 targets a running app instead.
+@Tag("perf")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "cookingbook.generator.recipes=${loadtest.recipes:5000}",
+                "cookingbook.snapshot.path=",
+                // measures raw capacity; -Dloadtest.admission=true to see shedding under the same load
+                "cookingbook.admission.enabled=${loadtest.admission:false}"
+        })
+@ActiveProfiles("api")
+class RecipeApiLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Load Test: Mixed traffic stays within latency budgets")
+    void testMixedTraffic_WithinBudgets() throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:" + port);
+
+        LoadTestHarness.Report report =
+                new LoadTestHarness(LoadTestHarness.Config.fromSystemProperties(baseUrl)).run();
+        report.print();
+
+        assertTrue(report.violations().isEmpty(), "Latency budgets exceeded: " + report.violations());
+        for (LoadTestHarness.EndpointStats stats : report.endpoints()) {
+            assertTrue(stats.errorRate() < Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01")),
+                    stats.operation().label() + " error rate too high: " + stats.errorRate());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Headless API profile end to end; also the test executed inside the native image (mvn -PnativeTest test)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:smoketest;DB_CLOSE_DELAY=-1",
+                "cookingbook.snapshot.path="
+        })
+@ActiveProfiles("api")
+class RecipeApiSmokeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Smoke Test: Seeded recipes are listed and readable")
+    void testListAndGetRecipe() {
+        ResponseEntity<RecipeDto[]> list = restTemplate.getForEntity("/api/recipes", RecipeDto[].class);
+        assertEquals(HttpStatus.OK, list.getStatusCode());
+        assertNotNull(list.getBody());
+        assertTrue(list.getBody().length >= 4, "Sample data should be seeded");
+
+        Long id = list.getBody()[0].id();
+        ResponseEntity<RecipeDto> single = restTemplate.getForEntity("/api/recipes/" + id, RecipeDto.class);
+        assertEquals(HttpStatus.OK, single.getStatusCode());
+        assertFalse(single.getBody().ingredients().isEmpty(), "Ingredients should be expanded by default");
+    }
+
+    @Test
+    @DisplayName("Smoke Test: Create, scale and delete a recipe")
+    void testCreateScaleDelete() {
+        RecipeRequest request = new RecipeRequest("Smoke Soup", "Created by the smoke test", Difficulty.EASY, 2,
+                List.of(new IngredientDto(null, "Water", 500, Unit.ML, IngredientCategory.VEGAN)),
+                List.of(new StepDto(null, 1, "Boil the water.", 10)),
+                null);
+        RecipeDto created = restTemplate.postForObject("/api/recipes", request, RecipeDto.class);
+        assertNotNull(created.id());
+
+        RecipeDto scaled = restTemplate.postForObject(
+                "/api/recipes/" + created.id() + "/calculate-portions?servings=4", null, RecipeDto.class);
+        assertEquals(4, scaled.servings());
+        assertEquals(1000, scaled.ingredients().get(0).quantity());
+
+        restTemplate.delete("/api/recipes/" + created.id());
+        assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity("/api/recipes/" + created.id(), String.class).getStatusCode());
+
+        // the change feed recorded all three writes in order
+        ChangeFeed.ChangePage page = restTemplate.getForObject("/api/recipes/changes?after=0&limit=1000",
+                ChangeFeed.ChangePage.class);
+        assertEquals(List.of(RecipeChangedEvent.ChangeType.CREATED, RecipeChangedEvent.ChangeType.UPDATED,
+                        RecipeChangedEvent.ChangeType.DELETED),
+                page.changes().stream()
+                        .filter(change -> change.recipeId().equals(created.id()))
+                        .map(ChangeFeed.Change::type)
+                        .toList());
+    }
+}
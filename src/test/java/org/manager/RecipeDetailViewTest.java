@@ -0,0 +1,114 @@
+package org.manager;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasText;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// The view is built without a UI; only the component tree it keeps server side is inspected
+class RecipeDetailViewTest {
+
+    private RecipeService recipeService;
+    private RecipeDetailView view;
+
+    @BeforeEach
+    void setUp() {
+        recipeService = mock(RecipeService.class);
+        view = new RecipeDetailView(recipeService, mock(SimilarityIndex.class), mock(CostingEngine.class));
+    }
+
+    @Test
+    @DisplayName("Recipe Detail View: Refreshing an unchanged recipe keeps every component")
+    void testRefresh_UnchangedRecipeKeepsTree() {
+        show(recipe(4, 400));
+        List<Component> before = tree(view);
+
+        show(recipe(4, 400));
+
+        assertSameComponents(before, tree(view));
+    }
+
+    @Test
+    @DisplayName("Recipe Detail View: A portion change only updates texts")
+    void testRefresh_PortionChangeOnlyUpdatesTexts() {
+        show(recipe(4, 400));
+        List<Component> before = tree(view);
+
+        show(recipe(8, 800));
+
+        List<Component> after = tree(view);
+        assertSameComponents(before, after);
+        assertTrue(texts(after).contains("Servings: 8"));
+        assertTrue(texts(after).contains("800 G Tomato (VEGETARIAN)"));
+    }
+
+    @Test
+    @DisplayName("Recipe Detail View: An added ingredient adds one component")
+    void testRefresh_AddedIngredientAddsOneComponent() {
+        show(recipe(4, 400));
+        List<Component> before = tree(view);
+
+        Recipe changed = recipe(4, 400);
+        Ingredient basil = new Ingredient("Basil", 10, Unit.G, IngredientCategory.VEGAN);
+        ReflectionTestUtils.setField(basil, "id", 3L);
+        changed.addIngredient(basil);
+        show(changed);
+
+        List<Component> after = tree(view);
+        assertEquals(before.size() + 1, after.size());
+        assertTrue(texts(after).contains("Ingredients (3)"));
+    }
+
+    // a fresh copy on every call, as each load from the database would be
+    private static Recipe recipe(int servings, int tomatoGrams) {
+        Recipe recipe = new Recipe("Pasta", "Test Description", Difficulty.MEDIUM, servings);
+        ReflectionTestUtils.setField(recipe, "id", 1L);
+        Ingredient tomato = new Ingredient("Tomato", tomatoGrams, Unit.G, IngredientCategory.VEGETARIAN);
+        Ingredient cheese = new Ingredient("Cheese", 200, Unit.G, IngredientCategory.VEGETARIAN);
+        ReflectionTestUtils.setField(tomato, "id", 1L);
+        ReflectionTestUtils.setField(cheese, "id", 2L);
+        recipe.addIngredient(tomato);
+        recipe.addIngredient(cheese);
+        for (int i = 1; i <= 3; i++) {
+            InstructionStep step = new InstructionStep(i, "Step " + i, 10);
+            ReflectionTestUtils.setField(step, "id", 10L + i);
+            recipe.addStep(step);
+        }
+        return recipe;
+    }
+
+    private void show(Recipe recipe) {
+        when(recipeService.getRecipeById(1L)).thenReturn(Optional.of(recipe));
+        view.setParameter(null, 1L);
+    }
+
+    private static List<Component> tree(Component root) {
+        List<Component> components = new ArrayList<>();
+        components.add(root);
+        root.getChildren().forEach(child -> components.addAll(tree(child)));
+        return components;
+    }
+
+    private static List<String> texts(List<Component> components) {
+        return components.stream()
+                .filter(c -> c instanceof HasText)
+                .map(c -> ((HasText) c).getText())
+                .toList();
+    }
+
+    private static void assertSameComponents(List<Component> expected, List<Component> actual) {
+        assertEquals(expected.size(), actual.size(), "No component should be added or removed");
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i), "Component " + i + " should be reused");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.manager;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeDtoSerializationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Recipe testRecipe;
+
+    // Hides the back-references so the entity graph can be serialized for comparison
+    abstract static class IgnoreRecipeReference {
+        @JsonIgnore
+        abstract Recipe getRecipe();
+    }
+
+    @BeforeEach
+    void setUp() {
+        testRecipe = new Recipe("Test Recipe", "Test Description", Difficulty.MEDIUM, 4);
+        testRecipe.addIngredient(new Ingredient("Tomato", 400, Unit.G, IngredientCategory.VEGETARIAN));
+        testRecipe.addIngredient(new Ingredient("Cheese", 200, Unit.G, IngredientCategory.VEGETARIAN));
+        testRecipe.addStep(new InstructionStep(1, "Step 1", 10));
+        testRecipe.addStep(new InstructionStep(2, "Step 2", 20));
+        testRecipe.setNutritionalInfo(new NutritionalInfo(350, 12.0, 8.5, 40.0));
+    }
+
+    @Test
+    @DisplayName("Serialization: Entity graph recurses through back-references")
+    void testEntitySerialization_Recursion() {
+        assertThrows(JsonMappingException.class, () -> objectMapper.writeValueAsString(testRecipe),
+                "Serializing the entity should fail on Ingredient.recipe -> Recipe.ingredients");
+    }
+
+    @Test
+    @DisplayName("Serialization: DTO keeps all recipe data")
+    void testDtoSerialization_Content() throws Exception {
+        String json = objectMapper.writeValueAsString(RecipeDto.from(testRecipe));
+
+        RecipeDto parsed = objectMapper.readValue(json, RecipeDto.class);
+        assertEquals("Test Recipe", parsed.name());
+        assertEquals(2, parsed.ingredients().size());
+        assertEquals(2, parsed.steps().size());
+        assertEquals(350, parsed.nutrition().calories());
+        assertFalse(json.contains("\"recipe\""), "DTO must not contain back-references");
+    }
+
+    @Test
+    @DisplayName("Serialization: DTO payload is smaller than the entity graph")
+    void testDtoSerialization_Size() throws Exception {
+        ObjectMapper entityMapper = new ObjectMapper()
+                .addMixIn(Ingredient.class, IgnoreRecipeReference.class)
+                .addMixIn(InstructionStep.class, IgnoreRecipeReference.class)
+                .addMixIn(NutritionalInfo.class, IgnoreRecipeReference.class);
+        RecipeDto dto = RecipeDto.from(testRecipe);
+
+        String entityJson = entityMapper.writeValueAsString(testRecipe);
+        String dtoJson = objectMapper.writeValueAsString(dto);
+
+        assertTrue(dtoJson.length() < entityJson.length(),
+                "DTO payload should be smaller than the entity payload");
+    }
+}
@@ -1,11 +1,19 @@
 package org.manager;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -15,6 +23,21 @@ class RecipeServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private CatalogIngredientRepository catalogIngredientRepository;
+
+    @Mock
+    private CatalogSnapshot catalogSnapshot;
+
+    @Mock
+    private NutritionCalculator nutritionCalculator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private RecipeService recipeService;
 
@@ -23,9 +46,11 @@ class RecipeServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(recipeService, "entityManager", entityManager);
 
         // Create a test recipe with 4 servings
         testRecipe = new Recipe("Test Recipe", "Test Description", Difficulty.MEDIUM, 4);
+        ReflectionTestUtils.setField(testRecipe, "id", 1L);
 
         // Add vegetarian ingredients
         testRecipe.addIngredient(new Ingredient("Tomato", 400, Unit.G, IngredientCategory.VEGETARIAN));
@@ -35,6 +60,15 @@ class RecipeServiceTest {
         testRecipe.addStep(new InstructionStep(1, "Step 1", 10));
         testRecipe.addStep(new InstructionStep(2, "Step 2", 20));
         testRecipe.addStep(new InstructionStep(3, "Step 3", 15));
+
+        // Portion scaling runs as guarded bulk updates; by default nobody else wrote in between
+        when(recipeRepository.updateServingsIfVersion(any(), anyLong(), anyInt(), anyInt())).thenReturn(1);
+        // every ingredient name is new to the dictionary
+        when(catalogIngredientRepository.save(any())).thenAnswer(invocation -> {
+            CatalogIngredient entry = invocation.getArgument(0);
+            ReflectionTestUtils.setField(entry, "id", (long) entry.getNormalizedName().hashCode());
+            return entry;
+        });
     }
 
     // ===== Business Logic Method 1: calculatePortions =====
@@ -56,7 +90,9 @@ class RecipeServiceTest {
                 "Tomato quantity should be doubled");
         assertEquals(originalCheeseQty * 2, testRecipe.getIngredients().get(1).getQuantity(),
                 "Cheese quantity should be doubled");
-        verify(recipeRepository, times(1)).save(testRecipe);
+        verify(recipeRepository, times(1)).updateServingsIfVersion(testRecipe.getId(), 0L, originalServings, 8);
+        verify(recipeRepository, times(1)).scaleIngredientQuantities(testRecipe.getId(), originalServings, 8);
+        verify(recipeRepository, never()).save(any());
     }
 
     @Test
@@ -71,7 +107,33 @@ class RecipeServiceTest {
                 "Tomato quantity should be halved (400 -> 200)");
         assertEquals(100, testRecipe.getIngredients().get(1).getQuantity(),
                 "Cheese quantity should be halved (200 -> 100)");
-        verify(recipeRepository, times(1)).save(testRecipe);
+        assertEquals(1, testRecipe.getVersion(), "Version should follow the database update");
+        verify(recipeRepository, times(1)).scaleIngredientQuantities(testRecipe.getId(), 4, 2);
+        verify(eventPublisher, times(1)).publishEvent(RecipeChangedEvent.of(RecipeChangedEvent.ChangeType.UPDATED, 1L));
+    }
+
+    @Test
+    @DisplayName("Calculate Portions: Exception when the recipe was changed concurrently")
+    void testCalculatePortions_StaleVersion() {
+        // Arrange
+        when(recipeRepository.updateServingsIfVersion(any(), anyLong(), anyInt(), anyInt())).thenReturn(0);
+
+        // Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            recipeService.calculatePortions(testRecipe, 8);
+        }, "Should throw exception when the version check fails");
+        assertEquals(4, testRecipe.getServings(), "Servings should be unchanged");
+        assertEquals(400, testRecipe.getIngredients().get(0).getQuantity(), "Quantities should be unchanged");
+        verify(recipeRepository, never()).scaleIngredientQuantities(any(), anyInt(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any(RecipeChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Calculate Portions: Rounding half up with a minimum of 1 unit")
+    void testScaleQuantity_Rounding() {
+        assertEquals(3, RecipeService.scaleQuantity(5, 4, 2), "5 * 2/4 = 2.5 should round up to 3");
+        assertEquals(1, RecipeService.scaleQuantity(1, 8, 1), "Quantity should never drop below 1");
+        assertEquals(133, RecipeService.scaleQuantity(400, 6, 2), "400 * 2/6 = 133.3 should round to 133");
     }
 
     @Test
@@ -220,4 +282,212 @@ class RecipeServiceTest {
         // Assert
         assertEquals(0, totalTime, "Total cooking time should be 0 when all steps have zero duration");
     }
-}
\ No newline at end of file
+
+    // ===== Ingredient dictionary =====
+
+    @Test
+    @DisplayName("Save Recipe: Spelling variants resolve to one stored dictionary entry")
+    void testSaveRecipe_ResolvesCatalogIngredients() {
+        // Arrange
+        CatalogIngredient storedTomato = new CatalogIngredient("Tomato", IngredientCategory.VEGETARIAN);
+        ReflectionTestUtils.setField(storedTomato, "id", 7L);
+        when(catalogIngredientRepository.findByNormalizedNameIn(any())).thenReturn(List.of(storedTomato));
+        when(recipeRepository.save(testRecipe)).thenReturn(testRecipe);
+        testRecipe.addIngredient(new Ingredient(" tomato ", 100, Unit.G, IngredientCategory.VEGETARIAN));
+
+        // Act
+        recipeService.saveRecipe(testRecipe);
+
+        // Assert
+        assertEquals(2, testRecipe.getIngredients().stream()
+                .filter(i -> i.getCatalogIngredient() == storedTomato).count(),
+                "Both tomato line items should reference the stored entry");
+        verify(catalogIngredientRepository, times(1)).findByNormalizedNameIn(any());
+        verify(catalogIngredientRepository, times(1)).save(any()); // only Cheese is new
+    }
+
+    @Test
+    @DisplayName("Save Recipe: A category contradicting the dictionary is rejected")
+    void testSaveRecipe_RejectsConflictingCategory() {
+        // Arrange
+        CatalogIngredient storedTomato = new CatalogIngredient("Tomato", IngredientCategory.VEGAN);
+        ReflectionTestUtils.setField(storedTomato, "id", 7L);
+        when(catalogIngredientRepository.findByNormalizedNameIn(any())).thenReturn(List.of(storedTomato));
+
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            recipeService.saveRecipe(testRecipe);
+        }, "Should not silently replace the VEGETARIAN tomato by the stored VEGAN one");
+        verify(catalogIngredientRepository, never()).save(any());
+        verify(recipeRepository, never()).save(any());
+        assertEquals(IngredientCategory.VEGAN, storedTomato.getCategory(), "Dictionary entry should be unchanged");
+    }
+
+    @Test
+    @DisplayName("Save Recipe: Saving an existing recipe always moves its version")
+    void testSaveRecipe_ForcesVersionIncrementOnUpdate() {
+        // Arrange
+        when(recipeRepository.save(testRecipe)).thenReturn(testRecipe);
+        testRecipe.getIngredients().get(0).setQuantity(500); // a child row only
+
+        // Act
+        recipeService.saveRecipe(testRecipe);
+
+        // Assert
+        verify(entityManager).lock(testRecipe, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    // ===== Partial update: updateRecipe =====
+
+    @Test
+    @DisplayName("Update Recipe: Only changed, new and removed rows are touched")
+    void testUpdateRecipe_DiffsIngredientsAndSteps() {
+        // Arrange
+        Ingredient tomato = testRecipe.getIngredients().get(0);
+        Ingredient cheese = testRecipe.getIngredients().get(1);
+        ReflectionTestUtils.setField(tomato, "id", 1L);
+        ReflectionTestUtils.setField(cheese, "id", 2L);
+        List<InstructionStep> steps = testRecipe.getSteps();
+        for (int i = 0; i < steps.size(); i++) {
+            ReflectionTestUtils.setField(steps.get(i), "id", 10L + i);
+        }
+        when(recipeRepository.findForUpdateById(5L)).thenReturn(Optional.of(testRecipe));
+
+        RecipePatch patch = new RecipePatch(0L, null, null, null, null,
+                List.of(new IngredientDto(1L, "Tomato", 500, Unit.G, IngredientCategory.VEGETARIAN),
+                        new IngredientDto(null, "Basil", 10, Unit.G, IngredientCategory.VEGAN)),
+                null, null);
+
+        // Act
+        Recipe updated = recipeService.updateRecipe(5L, patch).orElseThrow();
+
+        // Assert
+        assertSame(tomato, updated.getIngredients().stream().filter(i -> "Tomato".equals(i.getName()))
+                .findFirst().orElseThrow(), "Existing ingredient should be updated in place");
+        assertEquals(500, tomato.getQuantity(), "Tomato quantity should be updated");
+        assertTrue(updated.getIngredients().stream().anyMatch(i -> "Basil".equals(i.getName())),
+                "New ingredient should be added");
+        assertFalse(updated.getIngredients().contains(cheese), "Missing ingredient should be removed");
+        assertNull(cheese.getRecipe(), "Removed ingredient should be detached from the recipe");
+        assertEquals(3, updated.getSteps().size(), "Steps should be untouched when not in the patch");
+        verify(recipeRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Update Recipe: Changing the category of a kept ingredient is rejected")
+    void testUpdateRecipe_RejectsCategoryChange() {
+        // Arrange
+        ReflectionTestUtils.setField(testRecipe.getIngredients().get(0), "id", 1L);
+        when(recipeRepository.findForUpdateById(5L)).thenReturn(Optional.of(testRecipe));
+        RecipePatch patch = new RecipePatch(null, null, null, null, null,
+                List.of(new IngredientDto(1L, "Tomato", 400, Unit.G, IngredientCategory.MEAT)),
+                null, null);
+
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            recipeService.updateRecipe(5L, patch);
+        }, "Should reject a category that contradicts the dictionary entry");
+    }
+
+    @Test
+    @DisplayName("Update Recipe: Stale version is rejected")
+    void testUpdateRecipe_StaleVersion() {
+        // Arrange
+        when(recipeRepository.findForUpdateById(5L)).thenReturn(Optional.of(testRecipe));
+        RecipePatch patch = new RecipePatch(7L, "New Name", null, null, null, null, null, null);
+
+        // Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            recipeService.updateRecipe(5L, patch);
+        }, "Should reject a patch based on an old version");
+        assertEquals("Test Recipe", testRecipe.getName(), "Recipe should not be modified");
+    }
+
+    @Test
+    @DisplayName("Update Recipe: Unknown recipe returns empty")
+    void testUpdateRecipe_NotFound() {
+        // Arrange
+        when(recipeRepository.findForUpdateById(99L)).thenReturn(Optional.empty());
+        RecipePatch patch = new RecipePatch(null, "New Name", null, null, null, null, null, null);
+
+        // Assert
+        assertTrue(recipeService.updateRecipe(99L, patch).isEmpty(), "Unknown id should return empty");
+    }
+
+    @Test
+    @DisplayName("Replace Recipe: Omitted nutrition removes typed-in values")
+    void testReplaceRecipe_OmittedNutritionIsRemoved() {
+        // Arrange
+        ReflectionTestUtils.setField(testRecipe.getIngredients().get(0), "id", 1L);
+        testRecipe.setNutritionalInfo(new NutritionalInfo(500, 20.0, 10.0, 60.0));
+        when(recipeRepository.findForUpdateById(5L)).thenReturn(Optional.of(testRecipe));
+        RecipeRequest request = new RecipeRequest("Test Recipe", "Test Description", Difficulty.MEDIUM, 4,
+                List.of(new IngredientDto(1L, "Tomato", 400, Unit.G, IngredientCategory.VEGETARIAN)),
+                List.of(), null);
+
+        // Act
+        Recipe replaced = recipeService.replaceRecipe(5L, request).orElseThrow();
+
+        // Assert
+        assertNull(replaced.getNutritionalInfo(), "A full replace without nutrition should not keep the old values");
+        verify(nutritionCalculator).apply(replaced);
+    }
+
+    @Test
+    @DisplayName("Update Recipe: Omitted nutrition stays unchanged in a patch")
+    void testUpdateRecipe_OmittedNutritionIsKept() {
+        // Arrange
+        NutritionalInfo info = new NutritionalInfo(500, 20.0, 10.0, 60.0);
+        testRecipe.setNutritionalInfo(info);
+        when(recipeRepository.findForUpdateById(5L)).thenReturn(Optional.of(testRecipe));
+        RecipePatch patch = new RecipePatch(null, "New Name", null, null, null, null, null, null);
+
+        // Act
+        Recipe updated = recipeService.updateRecipe(5L, patch).orElseThrow();
+
+        // Assert
+        assertSame(info, updated.getNutritionalInfo(), "A patch without nutrition should keep it");
+    }
+
+    // ===== Bulk delete: deleteRecipes =====
+
+    @Test
+    @DisplayName("Delete Recipes: Filter is resolved to ids and deleted in one statement")
+    void testDeleteRecipes_ByFilter() {
+        // Arrange
+        when(recipeRepository.findIdsByFilter(Difficulty.HARD, null)).thenReturn(List.of(1L, 2L, 3L));
+        when(recipeRepository.findIdsByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 2L, 3L));
+        when(recipeRepository.deleteRecipesByIdIn(List.of(1L, 2L, 3L))).thenReturn(3);
+
+        // Act
+        int deleted = recipeService.deleteRecipes(new BulkDeleteRequest(null, Difficulty.HARD, ""));
+
+        // Assert
+        assertEquals(3, deleted, "All matching recipes should be deleted");
+        verify(recipeRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Delete Recipes: Only recipes that existed are reported as deleted")
+    void testDeleteRecipes_UnknownIdsNotPublished() {
+        // Arrange
+        when(recipeRepository.findIdsByIdIn(List.of(1L, 99L))).thenReturn(List.of(1L));
+        when(recipeRepository.deleteRecipesByIdIn(List.of(1L))).thenReturn(1);
+
+        // Act
+        int deleted = recipeService.deleteRecipes(new BulkDeleteRequest(List.of(1L, 99L), null, null));
+
+        // Assert
+        assertEquals(1, deleted, "Only the existing recipe should be deleted");
+        verify(eventPublisher).publishEvent(
+                new RecipeChangedEvent(RecipeChangedEvent.ChangeType.DELETED, List.of(1L)));
+    }
+
+    @Test
+    @DisplayName("Delete Recipes: Exception when neither ids nor a filter is given")
+    void testDeleteRecipes_NoCriteria() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            recipeService.deleteRecipes(new BulkDeleteRequest(List.of(), null, null));
+        }, "Should refuse to delete the whole catalog by accident");
+    }
+}
@@ -0,0 +1,68 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestProfilerTest {
+
+    @Test
+    @DisplayName("Request Profiler: Literals and IN lists collapse into one statement shape")
+    void testShapeOf_NormalizesLiterals() {
+        assertEquals("select * from recipe r where r.id=? and r.name=?",
+                RequestProfiler.shapeOf("select *\n  from recipe r where r.id=42 and r.name='Pasta ''al'' forno'"));
+        assertEquals(RequestProfiler.shapeOf("select i1_0.id from ingredient i1_0 where i1_0.recipe_id in (?,?)"),
+                RequestProfiler.shapeOf("select i1_0.id from ingredient i1_0 where i1_0.recipe_id in (?, ?, ?)"));
+    }
+
+    @Test
+    @DisplayName("Request Profiler: Repeated selects in one request are flagged as N+1")
+    void testFinish_FlagsRepeatedStatements() throws Exception {
+        // a high slow threshold: only the N+1 suspect gets the request recorded
+        RequestProfiler profiler = new RequestProfiler(Duration.ofHours(1), 5, 10);
+        ProfilingDataSource dataSource = new ProfilingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:profiler;DB_CLOSE_DELAY=-1"));
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertFalse(Proxy.isProxyClass(connection.getClass()), "No profiling outside a request");
+            statement.execute("create table step (id int primary key, recipe_id int)");
+            statement.execute("insert into step values (1, 1), (2, 1), (3, 2), (4, 3), (5, 4), (6, 5)");
+        }
+
+        profiler.start("GET /api/recipes");
+        try (Connection connection = dataSource.getConnection()) {
+            for (int recipeId = 1; recipeId <= 5; recipeId++) {
+                try (PreparedStatement statement = connection.prepareStatement("select id from step where recipe_id = ?")) {
+                    statement.setInt(1, recipeId);
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) { }
+                    }
+                }
+            }
+        }
+        profiler.finish(200);
+
+        List<RequestProfiler.ProfiledRequest> slowest = profiler.slowest();
+        assertEquals(1, slowest.size());
+        RequestProfiler.ProfiledRequest request = slowest.get(0);
+        assertEquals("GET /api/recipes", request.request());
+        assertEquals(5, request.statements());
+        assertEquals(6, request.rows());
+        assertEquals(List.of(new RequestProfiler.RepeatedStatement("select id from step where recipe_id = ?", 5)),
+                request.repeatedStatements());
+
+        // fast and without repeats: not kept
+        profiler.start("GET /api/recipes/1");
+        profiler.finish(200);
+        assertEquals(1, profiler.slowest().size());
+    }
+}
@@ -0,0 +1,79 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Single Flight: Concurrent identical calls share one execution")
+    void testExecute_CoalescesConcurrentCalls() throws Exception {
+        AtomicInteger executed = new AtomicInteger();
+        AtomicInteger coalesced = new AtomicInteger();
+        SingleFlight<String, String> flight = new SingleFlight<>(
+                wasCoalesced -> (wasCoalesced ? coalesced : executed).incrementAndGet());
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("pasta", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "result " + loads.incrementAndGet();
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            Future<?>[] followers = new Future<?>[7];
+            for (int i = 0; i < followers.length; i++) {
+                followers[i] = pool.submit(() -> flight.execute("pasta", () -> "result " + loads.incrementAndGet()));
+            }
+            // every follower has joined the running flight before it completes
+            while (coalesced.get() < followers.length) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("result 1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<?> follower : followers) {
+                assertEquals("result 1", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(1, executed.get());
+            assertEquals(0, flight.inFlight());
+
+            // no caching: the next call runs again
+            assertEquals("result 2", flight.execute("pasta", () -> "result " + loads.incrementAndGet()));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Single Flight: Waiters get the leader's exception")
+    void testExecute_PropagatesFailure() {
+        SingleFlight<String, String> flight = new SingleFlight<>(wasCoalesced -> { });
+        assertThrows(IllegalStateException.class, () -> flight.execute("x", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertEquals(0, flight.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.manager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitTest {
+
+    @Test
+    @DisplayName("Units: Quantities convert within a dimension")
+    void testConvert_WithinDimension() {
+        assertEquals(0.5, Unit.G.convert(500, Unit.KG), 1e-9);
+        assertEquals(3, Unit.TBSP.convert(1, Unit.TSP), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> Unit.PCS.convert(1, Unit.G),
+                "Pieces have no weight without a density");
+    }
+
+    @Test
+    @DisplayName("Units: Prices are normalized to the base unit")
+    void testIngredientPrice_PerBaseUnit() {
+        // Arrange: 2.50 per KG
+        IngredientPrice price = new IngredientPrice(new CatalogIngredient("Flour", IngredientCategory.VEGAN),
+                new BigDecimal("2.50"), 1, Unit.KG);
+
+        // Assert
+        assertEquals(0.0025, price.pricePerBaseUnit(), 1e-9, "Price per gram");
+        assertThrows(IllegalArgumentException.class, () -> price.update(new BigDecimal("1"), 0, Unit.KG));
+    }
+}